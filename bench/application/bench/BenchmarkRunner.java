@@ -0,0 +1,209 @@
+package application.bench;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * A small benchmark harness: warm up, then time fixed-length iterations and report the mean throughput
+ * and the bytes allocated per operation (on all threads, so background writers count too).
+ *
+ * Results can be written as CSV and compared with an earlier run; a benchmark that got slower, or
+ * allocates or retains more, by more than the threshold is reported as a regression.
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * One measured value. Throughput is better when higher, footprints when lower.
+     */
+    public static final class Result {
+        final String name;
+        final double score;
+        final String unit;
+        final double bytesPerOp; // NaN if not measured
+        final boolean higherIsBetter;
+
+        Result(String name, double score, String unit, double bytesPerOp, boolean higherIsBetter) {
+            this.name = name;
+            this.score = score;
+            this.unit = unit;
+            this.bytesPerOp = bytesPerOp;
+            this.higherIsBetter = higherIsBetter;
+        }
+    }
+
+    private static volatile int sink; // Results are folded in here so the JIT cannot drop the work
+
+    private final long warmupMillis;
+    private final long iterationMillis;
+    private final int iterations;
+    private final Pattern filter;
+    private final PrintStream out;
+    private final List<Result> results = new ArrayList<>();
+
+    /**
+     * @param filter Selects benchmarks by name (found anywhere in it), or null for all.
+     * @param out    Where results and regressions are printed.
+     */
+    public BenchmarkRunner(long warmupMillis, long iterationMillis, int iterations, Pattern filter, PrintStream out) {
+        this.out = out;
+        this.warmupMillis = warmupMillis;
+        this.iterationMillis = iterationMillis;
+        this.iterations = iterations;
+        this.filter = filter;
+    }
+
+    public boolean isSelected(String name) {
+        return filter == null || filter.matcher(name).find();
+    }
+
+    /**
+     * Measures the throughput of {@code operation}, if its name passes the filter.
+     */
+    public void throughput(String name, Callable<?> operation) throws Exception {
+        if (!isSelected(name)) {
+            return;
+        }
+        runFor(operation, warmupMillis);
+        long operations = 0;
+        long nanos = 0;
+        long allocated = 0;
+        for (int i = 0; i < iterations; i++) {
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            long count = runFor(operation, iterationMillis);
+            nanos += System.nanoTime() - start;
+            allocated += allocatedBytes() - allocatedBefore;
+            operations += count;
+        }
+        double opsPerSecond = operations * 1e9 / nanos;
+        double bytesPerOp = allocatedBytes() < 0 ? Double.NaN : (double) allocated / operations;
+        report(new Result(name, opsPerSecond, "ops/s", bytesPerOp, true));
+    }
+
+    /**
+     * Measures the heap retained by what {@code factory} builds, divided by {@code units} (e.g. launchers).
+     */
+    public void footprint(String name, int units, Supplier<Object> factory) throws InterruptedException {
+        if (!isSelected(name)) {
+            return;
+        }
+        factory.get(); // Loads the classes involved, so they are not counted
+        long before = usedHeapAfterGc();
+        Object retained = factory.get();
+        long after = usedHeapAfterGc();
+        sink += System.identityHashCode(retained);
+        report(new Result(name, (double) (after - before) / Math.max(1, units), "B/item", Double.NaN, false));
+    }
+
+    private long runFor(Callable<?> operation, long millis) throws Exception {
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+        long count = 0;
+        do {
+            Object result = operation.call();
+            sink += result == null ? 0 : result.hashCode();
+            count++;
+        } while (System.nanoTime() < deadline);
+        return count;
+    }
+
+    private void report(Result result) {
+        results.add(result);
+        String allocation = Double.isNaN(result.bytesPerOp) ? "" : String.format(Locale.ROOT, "%,16.0f B/op", result.bytesPerOp);
+        out.println(String.format(Locale.ROOT, "%-36s %,16.1f %-7s%s", result.name, result.score, result.unit, allocation));
+    }
+
+    public void writeCsv(Path file) throws IOException {
+        StringBuilder csv = new StringBuilder("name,score,unit,bytesPerOp\n");
+        for (Result result : results) {
+            csv.append(result.name).append(',').append(result.score).append(',').append(result.unit).append(',')
+                    .append(Double.isNaN(result.bytesPerOp) ? "" : Double.toString(result.bytesPerOp)).append('\n');
+        }
+        Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compares this run with a CSV written by {@link #writeCsv} and prints every regression.
+     * @param threshold Allowed change as a fraction, e.g. 0.1 for 10%.
+     * @return The number of regressions.
+     */
+    public int compareWith(Path baselineFile, double threshold) throws IOException {
+        Map<String, String[]> baseline = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(baselineFile, StandardCharsets.UTF_8);
+        for (String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+            String[] fields = line.split(",", -1);
+            if (fields.length == 4) {
+                baseline.put(fields[0], fields);
+            }
+        }
+        int regressions = 0;
+        for (Result result : results) {
+            String[] old = baseline.get(result.name);
+            if (old == null) {
+                continue;
+            }
+            double oldScore = Double.parseDouble(old[1]);
+            double change = (result.score - oldScore) / oldScore;
+            if (result.higherIsBetter ? change < -threshold : change > threshold) {
+                out.println(String.format(Locale.ROOT, "REGRESSION %s: %,.1f -> %,.1f %s (%+.1f%%)",
+                        result.name, oldScore, result.score, result.unit, change * 100));
+                regressions++;
+            }
+            if (!old[3].isEmpty() && !Double.isNaN(result.bytesPerOp)) {
+                double oldBytes = Double.parseDouble(old[3]);
+                // Tiny allocation counts are noise; only flag growth of at least 64 bytes per operation.
+                if (result.bytesPerOp > oldBytes * (1 + threshold) && result.bytesPerOp - oldBytes >= 64) {
+                    out.println(String.format(Locale.ROOT, "REGRESSION %s: %,.0f -> %,.0f B/op allocated",
+                            result.name, oldBytes, result.bytesPerOp));
+                    regressions++;
+                }
+            }
+        }
+        return regressions;
+    }
+
+    // Some memory is only freed a collection or two after it became unreachable (reference processing,
+    // weak listeners), so this collects until the used heap stopped shrinking twice in a row.
+    private static long usedHeapAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        int stable = 0;
+        for (int i = 0; i < 20 && stable < 2; i++) {
+            System.gc();
+            Thread.sleep(100);
+            long now = runtime.totalMemory() - runtime.freeMemory();
+            stable = now >= used ? stable + 1 : 0;
+            used = Math.min(used, now);
+        }
+        return used;
+    }
+
+    // Bytes allocated so far by all live threads, or -1 if the JVM does not tell. Looked up reflectively
+    // because the counters live in java.management/jdk.management, which the app module does not read.
+    private static long allocatedBytes() {
+        try {
+            Object threads = Class.forName("java.lang.management.ManagementFactory").getMethod("getThreadMXBean").invoke(null);
+            Class<?> beanType = Class.forName("com.sun.management.ThreadMXBean");
+            long[] ids = (long[]) Class.forName("java.lang.management.ThreadMXBean").getMethod("getAllThreadIds").invoke(threads);
+            Method allocated = beanType.getMethod("getThreadAllocatedBytes", long[].class);
+            long total = 0;
+            for (long bytes : (long[]) allocated.invoke(threads, (Object) ids)) {
+                total += Math.max(0, bytes);
+            }
+            return total;
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package application.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import application.LauncherTreeReconciler;
+import application.core.LauncherDataService;
+import application.core.LauncherItem;
+import application.core.LauncherSearchIndex;
+import javafx.scene.control.TreeItem;
+
+/**
+ * Benchmarks for the paths that grow with the size of the launcher collection: saving and loading the
+ * data file, ranking search results, building the TreeView items, copying trees, equals/hashCode and
+ * the memory held per launcher.
+ *
+ * Run from the project directory with the core and app classes, Gson and JavaFX on the class path, e.g.
+ * <pre>
+ * java -cp nexlaunch-core/bin:bin:bin-bench:gson-2.10.1.jar:&lt;javafx jars&gt; application.bench.LauncherBenchmarks \
+ *      --size 100000 --csv bench_output.txt --baseline last_release.csv
+ * </pre>
+ * Options: {@code --size}, {@code --breadth}, {@code --depth} (the generated tree, see
+ * {@link LauncherTreeGenerator}), {@code --iterations}, {@code --iterationMillis}, {@code --warmupMillis},
+ * {@code --filter <regex>} on benchmark names, {@code --csv <file>} to keep the results, and
+ * {@code --baseline <file> [--threshold <percent>]} to compare with earlier results; the exit code is 1
+ * if anything regressed. The app's own console output is hidden unless {@code --verbose} is given. The data file is written to a temporary directory, never to the user's home.
+ */
+public final class LauncherBenchmarks {
+
+    private static final String[] QUERIES = { "docs", "wiki", "calnedar", "gthub", "p", "settings editor" };
+
+    public static void main(String[] args) throws Exception {
+        int size = 20_000;
+        int breadth = 10;
+        int depth = 2;
+        int iterations = 5;
+        long iterationMillis = 1000;
+        long warmupMillis = 2000;
+        Pattern filter = null;
+        Path csv = null;
+        Path baseline = null;
+        double threshold = 0.10;
+        boolean verbose = false;
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--size": size = Integer.parseInt(value); i++; break;
+                case "--breadth": breadth = Integer.parseInt(value); i++; break;
+                case "--depth": depth = Integer.parseInt(value); i++; break;
+                case "--iterations": iterations = Integer.parseInt(value); i++; break;
+                case "--iterationMillis": iterationMillis = Long.parseLong(value); i++; break;
+                case "--warmupMillis": warmupMillis = Long.parseLong(value); i++; break;
+                case "--filter": filter = Pattern.compile(value); i++; break;
+                case "--csv": csv = Paths.get(value); i++; break;
+                case "--baseline": baseline = Paths.get(value); i++; break;
+                case "--threshold": threshold = Double.parseDouble(value) / 100; i++; break;
+                case "--verbose": verbose = true; break;
+                default:
+                    System.err.println("LauncherBenchmarks: Unknown option " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        // LauncherDataService resolves its files from user.home when the class loads, so this has to come first.
+        Path home = Files.createTempDirectory("nexlaunch-bench");
+        System.setProperty("user.home", home.toString());
+
+        LauncherTreeGenerator generator = new LauncherTreeGenerator(breadth, depth, size, 42);
+        List<LauncherItem> tree = generator.generate();
+        List<LauncherItem> allItems = new ArrayList<>();
+        flatten(tree, allItems);
+        PrintStream out = System.out;
+        out.println(String.format(Locale.ROOT, "Tree: %s (%,d items), Java %s", generator, allItems.size(),
+                System.getProperty("java.version")));
+        if (!verbose) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream())); // The app logs every save and load
+        }
+
+        BenchmarkRunner runner = new BenchmarkRunner(warmupMillis, iterationMillis, iterations, filter, out);
+        try {
+            persistence(runner, tree);
+            search(runner, tree);
+            treeItems(runner, tree);
+            items(runner, tree, allItems);
+            runner.footprint("memory.generatedTree", allItems.size(), generator::generate);
+        } finally {
+            deleteRecursively(home);
+        }
+
+        if (csv != null) {
+            runner.writeCsv(csv);
+        }
+        if (baseline != null && runner.compareWith(baseline, threshold) > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void persistence(BenchmarkRunner runner, List<LauncherItem> tree) throws Exception {
+        LauncherDataService dataService = new LauncherDataService(true);
+        for (LauncherDataService.SnapshotFormat format : LauncherDataService.SnapshotFormat.values()) {
+            String name = format.name().toLowerCase(Locale.ROOT);
+            if (!runner.isSelected("persistence.save." + name) && !runner.isSelected("persistence.load." + name)
+                    && !runner.isSelected("persistence.loadAll." + name) && !runner.isSelected("memory.loaded." + name)) {
+                continue;
+            }
+            dataService.setSnapshotFormat(format);
+            runner.throughput("persistence.save." + name, () -> {
+                dataService.saveLaunchers(tree);
+                return null;
+            });
+            dataService.saveLaunchers(tree); // In case saving was filtered out
+            runner.throughput("persistence.load." + name, dataService::loadLaunchers);
+            // Binary snapshots decode folders when they are opened; this includes opening all of them.
+            runner.throughput("persistence.loadAll." + name, () -> LauncherTreeGenerator.count(dataService.loadLaunchers()));
+            int units = LauncherTreeGenerator.count(tree);
+            runner.footprint("memory.loaded." + name, units, () -> {
+                try {
+                    List<LauncherItem> loaded = dataService.loadLaunchers();
+                    LauncherTreeGenerator.count(loaded);
+                    return loaded;
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            dataService.deleteDataFile();
+        }
+    }
+
+    private static void search(BenchmarkRunner runner, List<LauncherItem> tree) throws Exception {
+        // Ranked only, like the app's default fuzzy search, so the index keeps no trigram postings.
+        runner.throughput("search.rebuildIndex", () -> {
+            LauncherSearchIndex index = new LauncherSearchIndex(false);
+            index.rebuild(LauncherSearchIndex.Snapshot.of(tree));
+            return index.size();
+        });
+        LauncherSearchIndex index = new LauncherSearchIndex(false);
+        index.rebuild(LauncherSearchIndex.Snapshot.of(tree));
+        long now = System.currentTimeMillis();
+        int[] next = new int[1];
+        runner.throughput("search.rank", () -> {
+            String query = QUERIES[next[0]++ % QUERIES.length];
+            return index.rank(query, 200, now, null, () -> false).getMatchCount();
+        });
+        // Typing one character at a time, each query refining the previous ranking.
+        runner.throughput("search.rankWhileTyping", () -> {
+            LauncherSearchIndex.Ranking ranking = null;
+            String query = QUERIES[next[0]++ % QUERIES.length];
+            for (int length = 1; length <= query.length(); length++) {
+                ranking = index.rank(query.substring(0, length), 200, now, ranking, () -> false);
+            }
+            return ranking.getMatchCount();
+        });
+    }
+
+    private static void treeItems(BenchmarkRunner runner, List<LauncherItem> tree) throws Exception {
+        // What the TreeView needs to show everything expanded, starting from no TreeItems at all.
+        runner.throughput("tree.buildExpanded", () -> {
+            LauncherTreeReconciler reconciler = new LauncherTreeReconciler("Root", () -> tree, null);
+            reconciler.reset();
+            return countTreeItems(reconciler.getRoot());
+        });
+        // An edit to the top level of an existing tree: only the difference is applied.
+        LauncherTreeReconciler reconciler = new LauncherTreeReconciler("Root", () -> tree, null);
+        reconciler.reset();
+        countTreeItems(reconciler.getRoot());
+        runner.throughput("tree.syncTopLevelMove", () -> {
+            Collections.rotate(tree, 1);
+            reconciler.childrenChanged(null);
+            return reconciler.getRoot().getChildren().size();
+        });
+        // Filtered views, like search results, sort the shown children of each folder.
+        runner.throughput("tree.buildFiltered", () -> {
+            LauncherTreeReconciler filtered = new LauncherTreeReconciler("Results", () -> tree, null,
+                    item -> item.isFolder() || item.getLaunchCount() > 0, Comparator.comparing(LauncherItem::getName));
+            filtered.reset();
+            return countTreeItems(filtered.getRoot());
+        });
+    }
+
+    private static void items(BenchmarkRunner runner, List<LauncherItem> tree, List<LauncherItem> allItems) throws Exception {
+        runner.throughput("item.deepCopy", () -> {
+            List<LauncherItem> copy = new ArrayList<>(tree.size());
+            for (LauncherItem item : tree) {
+                copy.add(item.copy());
+            }
+            return copy.size();
+        });
+        runner.throughput("item.hashCode", () -> {
+            int hash = 0;
+            for (LauncherItem item : allItems) {
+                hash += item.hashCode();
+            }
+            return hash;
+        });
+        runner.throughput("item.equals", () -> {
+            int equal = 0;
+            for (int i = 1; i < allItems.size(); i++) {
+                if (allItems.get(i).equals(allItems.get(i - 1))) {
+                    equal++;
+                }
+            }
+            return equal;
+        });
+    }
+
+    private static int countTreeItems(TreeItem<LauncherItem> treeItem) {
+        int count = 1;
+        for (TreeItem<LauncherItem> child : treeItem.getChildren()) { // Builds lazily created children
+            count += countTreeItems(child);
+        }
+        return count;
+    }
+
+    private static void flatten(List<LauncherItem> items, List<LauncherItem> into) {
+        for (LauncherItem item : items) {
+            into.add(item);
+            if (item.isFolder() && item.getChildren() != null) {
+                flatten(item.getChildren(), into);
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
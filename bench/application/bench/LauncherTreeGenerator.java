@@ -0,0 +1,106 @@
+package application.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import application.core.LauncherItem;
+
+/**
+ * Builds synthetic launcher trees for the benchmarks, the same tree for the same parameters.
+ *
+ * Every folder holds {@code breadth} entries down to {@code depth} levels of folders, and launchers are
+ * dealt out round-robin over the deepest folders until there are {@code size} of them. Names and URLs
+ * repeat the way real collections do: a handful of sites and directories, common words in the names.
+ */
+public final class LauncherTreeGenerator {
+
+    private static final String[] SITES = {
+        "https://www.github.com/", "https://docs.oracle.com/javase/17/docs/api/", "https://en.wikipedia.org/wiki/",
+        "https://www.youtube.com/watch?v=", "https://stackoverflow.com/questions/", "https://mail.google.com/mail/u/0/#"
+    };
+    private static final String[] DIRECTORIES = {
+        "C:\\Program Files\\", "C:\\Users\\Public\\Desktop\\", "D:\\Games\\", "C:\\Tools\\bin\\"
+    };
+    private static final String[] WORDS = {
+        "Home", "Docs", "Readme", "Issues", "Mail", "Search", "Video", "Article", "Settings", "Editor",
+        "Terminal", "Calendar", "Notes", "Music", "Photos", "Backup", "Report", "Invoice", "Project", "Wiki"
+    };
+
+    private final int breadth;
+    private final int depth;
+    private final int size;
+    private final long seed;
+
+    /**
+     * @param breadth Entries per folder (folders above the deepest level hold only folders).
+     * @param depth   Levels of folders; 0 puts every launcher at the top level.
+     * @param size    Number of launchers, not counting folders.
+     */
+    public LauncherTreeGenerator(int breadth, int depth, int size, long seed) {
+        if (breadth < 1 || depth < 0 || size < 0) {
+            throw new IllegalArgumentException("breadth must be positive, depth and size not negative");
+        }
+        this.breadth = breadth;
+        this.depth = depth;
+        this.size = size;
+        this.seed = seed;
+    }
+
+    public List<LauncherItem> generate() {
+        Random random = new Random(seed);
+        List<LauncherItem> topLevel = new ArrayList<>();
+        List<List<LauncherItem>> leafLists = new ArrayList<>();
+        if (depth == 0) {
+            leafLists.add(topLevel);
+        } else {
+            addFolders(topLevel, 1, "", leafLists);
+        }
+        for (int i = 0; i < size; i++) {
+            leafLists.get(i % leafLists.size()).add(launcher(random, i));
+        }
+        return topLevel;
+    }
+
+    private void addFolders(List<LauncherItem> into, int level, String path, List<List<LauncherItem>> leafLists) {
+        for (int i = 0; i < breadth; i++) {
+            LauncherItem folder = new LauncherItem(WORDS[(level * 7 + i) % WORDS.length] + " " + path + (i + 1));
+            into.add(folder);
+            if (level < depth) {
+                addFolders(folder.getChildren(), level + 1, path + (i + 1) + ".", leafLists);
+            } else {
+                leafLists.add(folder.getChildren());
+            }
+        }
+    }
+
+    private static LauncherItem launcher(Random random, int number) {
+        String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + number;
+        String suffix = Long.toString(random.nextLong() & 0xFFFFFFFFFFL, 36);
+        String urlOrPath = random.nextInt(4) == 0
+                ? DIRECTORIES[random.nextInt(DIRECTORIES.length)] + suffix + "\\" + suffix + ".exe"
+                : SITES[random.nextInt(SITES.length)] + suffix;
+        LauncherItem item = new LauncherItem(name, urlOrPath, random.nextInt(50) == 0);
+        if (random.nextInt(10) == 0) {
+            item.setLaunchStats(1 + random.nextInt(40), 1_700_000_000_000L + random.nextInt(1_000_000_000));
+        }
+        return item;
+    }
+
+    // Number of launchers plus folders in {@code items}, loading every folder.
+    public static int count(List<LauncherItem> items) {
+        int count = 0;
+        for (LauncherItem item : items) {
+            count++;
+            if (item.isFolder() && item.getChildren() != null) {
+                count += count(item.getChildren());
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "breadth=" + breadth + " depth=" + depth + " size=" + size;
+    }
+}
@@ -0,0 +1,92 @@
+package application.bench;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import application.core.LauncherDataService;
+import application.core.LauncherItem;
+import application.core.LauncherJournal;
+
+/**
+ * Crash-recovery checks for {@link LauncherDataService} that need nothing but the core classes and Gson:
+ * each one saves, journals and then loads with a fresh service, as a restart would.
+ * <pre>
+ * java -cp nexlaunch-core/bin:bin-bench:gson-2.10.1.jar application.bench.PersistenceChecks
+ * </pre>
+ * Prints one line per check; the exit code is 1 if any failed.
+ */
+public final class PersistenceChecks {
+
+    private static int failures;
+
+    private PersistenceChecks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // LauncherDataService resolves its files from user.home when the class loads, so this has to come first.
+        Path home = Files.createTempDirectory("nexlaunch-checks");
+        System.setProperty("user.home", home.toString());
+
+        for (LauncherDataService.SnapshotFormat format : LauncherDataService.SnapshotFormat.values()) {
+            addAfterEmptyingSurvivesRestart(format, home);
+            editsInsideFoldersReplayById(format);
+        }
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    // Emptying the list is a snapshot like any other: an add journaled after it is replayed on the next load.
+    private static void addAfterEmptyingSurvivesRestart(LauncherDataService.SnapshotFormat format, Path home) throws Exception {
+        LauncherDataService dataService = new LauncherDataService();
+        dataService.setSnapshotFormat(format);
+        dataService.deleteDataFile();
+        dataService.saveLaunchers(List.of(new LauncherItem("Mail", "https://mail.example.com/")));
+        dataService.saveLaunchers(Collections.emptyList());
+        dataService.recordAdd(LauncherJournal.TOP_LEVEL_ID, new LauncherItem("Wiki", "https://wiki.example.com/"));
+        dataService.flush(5, TimeUnit.SECONDS);
+
+        List<LauncherItem> loaded = new LauncherDataService().loadLaunchers(); // As after a restart
+        String name = format + ": add after emptying the list survives a restart";
+        check(name, loaded.size() == 1 && "Wiki".equals(loaded.get(0).getName()), "loaded " + loaded);
+        String file = format == LauncherDataService.SnapshotFormat.BINARY ? "launchers_data.nxl.1" : "launchers_data.json.1";
+        check(format + ": emptying the list keeps the previous generation", Files.exists(home.resolve(file)), file + " is missing");
+        dataService.deleteDataFile();
+    }
+
+    // Journal entries name items by id, so removing a sibling in front of an edited item does not misdirect the edit.
+    private static void editsInsideFoldersReplayById(LauncherDataService.SnapshotFormat format) throws Exception {
+        LauncherDataService dataService = new LauncherDataService();
+        dataService.setSnapshotFormat(format);
+        dataService.deleteDataFile();
+        LauncherItem folder = new LauncherItem("Work");
+        LauncherItem old = new LauncherItem("Old", "https://old.example.com/");
+        LauncherItem docs = new LauncherItem("Docs", "https://docs.example.com/");
+        folder.addChild(old);
+        folder.addChild(docs);
+        dataService.saveLaunchers(List.of(folder));
+        dataService.recordRemove(old.getId());
+        dataService.recordAdd(folder.getId(), new LauncherItem("Chat", "https://chat.example.com/"));
+        dataService.recordRename(docs.getId(), "Manuals");
+        dataService.recordLaunch(docs.getId(), 3, 1000L);
+        dataService.flush(5, TimeUnit.SECONDS);
+
+        List<LauncherItem> loaded = new LauncherDataService().loadLaunchers(); // Binary: the folder is still undecoded
+        List<LauncherItem> children = loaded.size() == 1 ? loaded.get(0).getChildren() : null;
+        boolean replayed = children != null && children.size() == 2
+                && "Manuals".equals(children.get(0).getName()) && children.get(0).getLaunchCount() == 3
+                && "Chat".equals(children.get(1).getName());
+        check(format + ": edits inside a folder replay by id", replayed, "loaded " + loaded + " with children " + children);
+        dataService.deleteDataFile();
+    }
+
+    private static void check(String name, boolean passed, String detail) {
+        if (passed) {
+            System.out.println("PASS " + name);
+        } else {
+            failures++;
+            System.out.println("FAIL " + name + ": " + detail);
+        }
+    }
+}
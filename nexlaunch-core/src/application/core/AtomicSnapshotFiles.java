@@ -0,0 +1,214 @@
+package application.core;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Crash-safe writes for a snapshot file that keeps a fixed number of older generations.
+ * A save is written to "<name>.tmp" and forced to disk. The current file is then renamed into the
+ * oldest backup slot ("<name>.1" .. "<name>.N"), and the temp file is atomically moved into place.
+ * A kill at any point leaves either the previous file or a complete new one, never a torn file.
+ * The directory is forced after the move too, so the rename itself survives a power loss.
+ *
+ * Files are ordered by the generation recorded in them, which a {@link GenerationReader} peeks at;
+ * modification times only break ties, since a restored or copied backup can carry any timestamp.
+ */
+public class AtomicSnapshotFiles {
+
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+
+    private final Path target;
+    private final Path tempFile;
+    private final int generationsToKeep;
+    private final GenerationReader generationReader;
+
+    @FunctionalInterface
+    public interface GenerationReader {
+        /**
+         * @return The generation {@code file} was written with, 0 if it does not record one, or -1 if it cannot be read.
+         */
+        long generationOf(Path file);
+    }
+
+    @FunctionalInterface
+    public interface ContentWriter {
+        /**
+         * Writes the file content. Implementations must flush but not close {@code writer}.
+         */
+        void write(Writer writer) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface BinaryContentWriter {
+        /**
+         * Writes the file content. Implementations must flush but not close {@code out}.
+         */
+        void write(OutputStream out) throws IOException;
+    }
+
+    public AtomicSnapshotFiles(Path target, int generationsToKeep, GenerationReader generationReader) {
+        this.target = target;
+        this.tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+        this.generationsToKeep = Math.max(0, generationsToKeep);
+        this.generationReader = generationReader;
+    }
+
+    public Path getTarget() {
+        return target;
+    }
+
+    /**
+     * Writes a new generation of the file as UTF-8 text.
+     * The content is serialized once; rotation costs one extra rename of the previous file.
+     */
+    public void write(ContentWriter content) throws IOException {
+        writeBytes(out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), IO_BUFFER_SIZE);
+            content.write(writer);
+            writer.flush();
+        });
+    }
+
+    /**
+     * Writes a new generation of the file from raw bytes.
+     */
+    public void writeBytes(BinaryContentWriter content) throws IOException {
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            // Not closed here: closing the stream would close the channel before it is forced.
+            OutputStream out = Channels.newOutputStream(channel);
+            content.write(out);
+            out.flush();
+            channel.force(true);
+        }
+
+        if (generationsToKeep > 0 && Files.exists(target)) {
+            moveIntoBackupSlot();
+        }
+        try {
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        forceDirectory();
+    }
+
+    /**
+     * @return The current file and the existing backups, newest generation first. Any of them may be unreadable.
+     */
+    public List<Path> candidatesNewestFirst() {
+        List<Path> candidates = new ArrayList<>();
+        if (Files.exists(target)) {
+            candidates.add(target);
+        }
+        for (int slot = 1; slot <= generationsToKeep; slot++) {
+            Path backup = backupSlot(slot);
+            if (Files.exists(backup)) {
+                candidates.add(backup);
+            }
+        }
+        return sortNewestFirst(candidates);
+    }
+
+    /**
+     * Orders {@code files} by the generation recorded in them, newest first; equal generations (e.g. files
+     * from before generations were recorded) by modification time. Each file is peeked at once.
+     */
+    public List<Path> sortNewestFirst(List<Path> files) {
+        Map<Path, Long> generations = new HashMap<>();
+        Map<Path, FileTime> modified = new HashMap<>();
+        for (Path file : files) {
+            generations.put(file, generationReader.generationOf(file));
+            modified.put(file, lastModified(file));
+        }
+        List<Path> sorted = new ArrayList<>(files);
+        sorted.sort(Comparator.comparing((Path file) -> generations.get(file))
+                .thenComparing(file -> modified.get(file))
+                .reversed());
+        return sorted;
+    }
+
+    /**
+     * Deletes the current file, every backup and any leftover temp file.
+     * @return true if at least one file was deleted.
+     */
+    public boolean deleteAll() throws IOException {
+        boolean deleted = Files.deleteIfExists(target);
+        for (int slot = 1; slot <= generationsToKeep; slot++) {
+            deleted |= Files.deleteIfExists(backupSlot(slot));
+        }
+        Files.deleteIfExists(tempFile);
+        return deleted;
+    }
+
+    // Renames the current file into a free slot, or over the backup with the oldest generation.
+    private void moveIntoBackupSlot() throws IOException {
+        List<Path> slots = new ArrayList<>();
+        for (int slot = 1; slot <= generationsToKeep; slot++) {
+            Path backup = backupSlot(slot);
+            if (!Files.exists(backup)) {
+                Files.move(target, backup);
+                return;
+            }
+            slots.add(backup);
+        }
+        slots = sortNewestFirst(slots);
+        Collections.reverse(slots);
+
+        FileSystemException lastFailure = null;
+        for (Path backup : slots) {
+            try {
+                Files.move(target, backup, StandardCopyOption.REPLACE_EXISTING);
+                return;
+            } catch (FileSystemException e) {
+                // Some platforms refuse to replace a file that is still open or memory-mapped; try the next oldest.
+                lastFailure = e;
+            }
+        }
+        throw lastFailure;
+    }
+
+    // Makes the rename durable. Not every platform can open a directory (Windows cannot); the move is still atomic there.
+    private void forceDirectory() {
+        Path directory = target.toAbsolutePath().getParent();
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Best effort, see above
+        }
+    }
+
+    private Path backupSlot(int slot) {
+        return target.resolveSibling(target.getFileName() + "." + slot);
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
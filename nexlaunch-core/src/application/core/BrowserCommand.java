@@ -0,0 +1,131 @@
+package application.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Opens many web URLs with one browser process instead of one desktop browse call per URL.
+ *
+ * The command comes from the system property {@code nexlaunch.browserCommand}, e.g.
+ * {@code "C:\Program Files\Mozilla Firefox\firefox.exe" -new-tab} or {@code google-chrome}; double quotes
+ * group an argument that contains spaces. The URLs are appended as arguments. On macOS the default is
+ * {@code open}, which already hands several URLs to the default browser at once; elsewhere there is no
+ * default, as the desktop openers (xdg-open, start) only take one URL.
+ *
+ * URL lists longer than the OS command line limit are split into several handoffs. The limit is
+ * 32000 characters on Windows and 128 KB elsewhere, overridable with {@code nexlaunch.browserArgLimit}.
+ */
+public final class BrowserCommand {
+
+    private static final boolean WINDOWS = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+    private static final boolean MAC = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("mac");
+    private static final int DEFAULT_ARG_LIMIT = WINDOWS ? 32_000 : 128 * 1024;
+
+    private final List<String> command;
+    private final int argLimit;
+
+    public BrowserCommand(List<String> command, int argLimit) {
+        if (command.isEmpty()) {
+            throw new IllegalArgumentException("Browser command is empty");
+        }
+        this.command = Collections.unmodifiableList(new ArrayList<>(command));
+        this.argLimit = argLimit;
+    }
+
+    /**
+     * @return The configured browser command, or null if none is configured for this platform.
+     */
+    public static BrowserCommand fromSystemProperties() {
+        String configured = System.getProperty("nexlaunch.browserCommand");
+        if (configured == null) {
+            configured = MAC ? "open" : "";
+        }
+        List<String> command = parseCommand(configured);
+        if (command.isEmpty()) {
+            return null;
+        }
+        return new BrowserCommand(command, Integer.getInteger("nexlaunch.browserArgLimit", DEFAULT_ARG_LIMIT));
+    }
+
+    public List<String> getCommand() {
+        return command;
+    }
+
+    /**
+     * Splits {@code urls} into groups that each fit on one command line after the browser command.
+     * A URL that is too long on its own still gets a group of its own.
+     */
+    public List<List<String>> chunk(List<String> urls) {
+        int commandLength = 0;
+        for (String part : command) {
+            commandLength += argLength(part);
+        }
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int length = commandLength;
+        for (String url : urls) {
+            int urlLength = argLength(url);
+            if (!current.isEmpty() && length + urlLength > argLimit) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                length = commandLength;
+            }
+            current.add(url);
+            length += urlLength;
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    /**
+     * Starts the browser command with {@code urls} as arguments and returns once the process started;
+     * the browser is not waited for, as it may keep running as that process.
+     * @throws IOException If the command could not be started.
+     */
+    public void open(List<String> urls) throws IOException {
+        List<String> arguments = new ArrayList<>(command.size() + urls.size());
+        arguments.addAll(command);
+        arguments.addAll(urls);
+        new ProcessBuilder(arguments)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+    }
+
+    // Space separator, plus the quotes Windows adds around arguments that need them
+    private static int argLength(String argument) {
+        return argument.length() + (WINDOWS ? 3 : 1);
+    }
+
+    static List<String> parseCommand(String text) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder part = new StringBuilder();
+        boolean quoted = false;
+        boolean inPart = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+                inPart = true;
+            } else if (Character.isWhitespace(c) && !quoted) {
+                if (inPart) {
+                    parts.add(part.toString());
+                    part.setLength(0);
+                    inPart = false;
+                }
+            } else {
+                part.append(c);
+                inPart = true;
+            }
+        }
+        if (inPart) {
+            parts.add(part.toString());
+        }
+        return parts;
+    }
+}
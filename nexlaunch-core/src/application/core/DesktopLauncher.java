@@ -0,0 +1,43 @@
+package application.core;
+
+import java.awt.Desktop;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+
+/**
+ * Hands a launcher's URL or path to the desktop: http(s) URLs go to the default browser, anything else
+ * is opened as a file with its associated application. Blocks until the desktop accepted the request,
+ * which can take hundreds of milliseconds, so batch callers should use {@link LaunchScheduler}.
+ */
+public final class DesktopLauncher {
+
+    private DesktopLauncher() {
+    }
+
+    public static boolean isWebUrl(String pathOrUrl) {
+        return pathOrUrl.startsWith("http://") || pathOrUrl.startsWith("https://");
+    }
+
+    /**
+     * @throws FileNotFoundException If {@code pathOrUrl} is not a web URL and no such file exists.
+     * @throws IOException If the desktop could not open it.
+     * @throws URISyntaxException If a web URL is malformed.
+     */
+    public static void open(String pathOrUrl) throws IOException, URISyntaxException {
+        if (pathOrUrl == null || pathOrUrl.trim().isEmpty()) {
+            throw new IOException("Path or URL is empty.");
+        }
+        if (isWebUrl(pathOrUrl)) {
+            Desktop.getDesktop().browse(new URI(pathOrUrl));
+        } else {
+            File file = new File(pathOrUrl);
+            if (!file.exists()) {
+                throw new FileNotFoundException("File or application not found at: " + pathOrUrl);
+            }
+            Desktop.getDesktop().open(file);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package application.core;
+
+/**
+ * Scores how well a query matches a launcher name or URL as a subsequence, fzf-style.
+ *
+ * Both arguments are lowercase {@code char[]}s prepared once (the query per search, the text when
+ * an item is indexed), and scoring allocates nothing, so ranking a large tree costs only the character
+ * comparisons. Every matched character earns points; consecutive matches and matches at the start of
+ * a word earn more, and gaps between matches cost a little. A query of at least
+ * {@link #TYPO_MIN_LENGTH} characters may leave one character unmatched (a mistyped or extra key)
+ * at a fixed penalty.
+ */
+public final class FuzzyMatcher {
+
+    public static final int NO_MATCH = Integer.MIN_VALUE;
+    public static final int TYPO_MIN_LENGTH = 4;
+
+    private static final int SCORE_MATCH = 16;
+    private static final int BONUS_CONSECUTIVE = 12;
+    private static final int BONUS_BOUNDARY = 10;
+    private static final int BONUS_FIRST_CHAR = 8; // On top of the boundary bonus, for a match at the very start
+    private static final int PENALTY_GAP_START = 3;
+    private static final int PENALTY_GAP_EXTENSION = 1;
+    private static final int MAX_GAP_PENALTY = 12;
+    private static final int PENALTY_TYPO = 24;
+
+    private FuzzyMatcher() {
+    }
+
+    /**
+     * @return The best score of {@code query} against {@code text}, or {@link #NO_MATCH}.
+     */
+    public static int score(char[] query, char[] text) {
+        int exact = scoreExact(query, text);
+        return exact != NO_MATCH ? exact : scoreWithTypo(query, text);
+    }
+
+    /**
+     * @return The score of {@code query} as an exact subsequence of {@code text}, or {@link #NO_MATCH}.
+     */
+    public static int scoreExact(char[] query, char[] text) {
+        if (query.length == 0) {
+            return 0;
+        }
+        if (text == null || text.length == 0) {
+            return NO_MATCH;
+        }
+        return scoreSkipping(query, -1, text);
+    }
+
+    /**
+     * @return The score of {@code query} with one character left out, for a text that
+     *         {@link #scoreExact} did not match; {@link #NO_MATCH} if that does not match either
+     *         or the query is shorter than {@link #TYPO_MIN_LENGTH}.
+     */
+    public static int scoreWithTypo(char[] query, char[] text) {
+        if (query.length < TYPO_MIN_LENGTH || text == null || text.length == 0) {
+            return NO_MATCH;
+        }
+        // Leave out the first query character the greedy match could not place.
+        int failedAt = matchedPrefixLength(query, text);
+        int score = scoreSkipping(query, failedAt, text);
+        return score == NO_MATCH ? NO_MATCH : score - PENALTY_TYPO;
+    }
+
+    /**
+     * A 64-bit summary of which characters occur in {@code text}: one bit per ASCII letter and digit,
+     * with the remaining bits shared by all other characters. If the query has a bit the text lacks,
+     * the text cannot match exactly (and with two such bits, not even with a typo), so scoring can be skipped.
+     */
+    public static long charMask(char[] text) {
+        long mask = 0;
+        if (text != null) {
+            for (char c : text) {
+                mask |= 1L << charBit(c);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Like {@link #charMask}, but with only the bits of characters that occur more than once in {@code text}.
+     */
+    public static long repeatedCharMask(char[] text) {
+        long seen = 0;
+        long repeated = 0;
+        for (char c : text) {
+            long bit = 1L << charBit(c);
+            repeated |= seen & bit;
+            seen |= bit;
+        }
+        return repeated;
+    }
+
+    private static int charBit(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= '0' && c <= '9') {
+            return 26 + (c - '0');
+        }
+        return 36 + (c % 27); // Other characters share the remaining bits
+    }
+
+    /**
+     * @return true if {@code query} occurs in {@code text} as a contiguous substring.
+     */
+    public static boolean contains(char[] text, char[] query) {
+        if (text == null) {
+            return false;
+        }
+        int last = text.length - query.length;
+        outer:
+        for (int start = 0; start <= last; start++) {
+            for (int i = 0; i < query.length; i++) {
+                if (text[start + i] != query[i]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // Greedy matching picks the leftmost occurrence of each character, which can miss a better alignment
+    // further right; trying each word start of the first character as an anchor catches the common cases.
+    private static int scoreSkipping(char[] query, int skip, char[] text) {
+        int first = skip == 0 ? 1 : 0;
+        if (first >= query.length) {
+            return NO_MATCH;
+        }
+        int best = NO_MATCH;
+        boolean triedLeftmost = false;
+        for (int start = 0; start < text.length; start++) {
+            if (text[start] != query[first]) {
+                continue;
+            }
+            if (!triedLeftmost || isBoundary(text, start)) {
+                int score = scoreFrom(query, skip, text, start);
+                if (score == NO_MATCH) {
+                    break; // A later anchor cannot match if this one ran out of text
+                }
+                best = Math.max(best, score);
+                triedLeftmost = true;
+            }
+        }
+        return best;
+    }
+
+    private static int scoreFrom(char[] query, int skip, char[] text, int start) {
+        int score = 0;
+        int previous = -1;
+        int q = 0;
+        for (int t = start; t < text.length; t++) {
+            if (q == skip) {
+                q++;
+            }
+            if (q >= query.length) {
+                break;
+            }
+            if (text[t] != query[q]) {
+                continue;
+            }
+            int points = SCORE_MATCH;
+            if (previous >= 0 && t == previous + 1) {
+                points += BONUS_CONSECUTIVE;
+            } else if (previous >= 0) {
+                points -= Math.min(MAX_GAP_PENALTY, PENALTY_GAP_START + (t - previous - 2) * PENALTY_GAP_EXTENSION);
+            }
+            if (isBoundary(text, t)) {
+                points += BONUS_BOUNDARY;
+                if (t == 0) {
+                    points += BONUS_FIRST_CHAR;
+                }
+            }
+            score += points;
+            previous = t;
+            q++;
+        }
+        if (q == skip) {
+            q++;
+        }
+        return q >= query.length ? score : NO_MATCH;
+    }
+
+    private static int matchedPrefixLength(char[] query, char[] text) {
+        int q = 0;
+        for (int t = 0; t < text.length && q < query.length; t++) {
+            if (text[t] == query[q]) {
+                q++;
+            }
+        }
+        return q;
+    }
+
+    private static boolean isBoundary(char[] text, int index) {
+        if (index == 0) {
+            return true;
+        }
+        char before = text[index - 1];
+        if (before < 128) {
+            return !((before >= 'a' && before <= 'z') || (before >= '0' && before <= '9') || (before >= 'A' && before <= 'Z'));
+        }
+        return !Character.isLetterOrDigit(before);
+    }
+}
@@ -0,0 +1,246 @@
+package application.core;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Launches from the command line without a window, e.g. from a login script:
+ * <pre>
+ * java -p nexlaunch-core/bin:gson-2.10.1.jar -m nexlaunch.core/application.core.HeadlessLauncher --launch-startup
+ * java -p ... -m nexlaunch.core/application.core.HeadlessLauncher --launch "Mail" --launch "Work folder"
+ * </pre>
+ * {@code --launch-startup} runs the startup plan, {@code --launch <name>} launches the first launcher or folder
+ * with that name (ignoring case; each list is searched before the folders in it); both can be combined
+ * and {@code --launch} repeated. Named launches count towards search ranking like launches from the window.
+ * {@code --search <text>} prints the best matches, one "name, tab, URL or path" line each.
+ *
+ * If another NexLaunch is running (the window, or {@code --daemon}), the commands are handed to it over its
+ * {@link LauncherDaemon} socket instead of loading the launchers again; it then starts the startup plan without
+ * waiting for it. {@code --daemon} keeps this process running as that instance, without a window.
+ *
+ * Run as the main class of the core module this never loads JavaFX, which is what makes it start fast; the
+ * app's {@code Main} accepts the same options, but the Java launcher starts the JavaFX toolkit before it.
+ * The exit code is 0 if everything launched, 1 if something failed and 2 for bad options or unreadable data.
+ */
+public final class HeadlessLauncher {
+
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_LAUNCH_FAILED = 1;
+    public static final int EXIT_USAGE = 2;
+
+    private static final String LAUNCH_STARTUP_OPTION = "--launch-startup";
+    private static final String LAUNCH_OPTION = "--launch";
+    private static final String SEARCH_OPTION = "--search";
+    private static final String DAEMON_OPTION = "--daemon";
+    private static final int MAX_REPORTED_FAILURES = 20;
+    private static final int SEARCH_RESULT_LIMIT = 20;
+    // How long exiting waits for the launch counts to reach the disk.
+    private static final long SAVE_ON_EXIT_TIMEOUT_MILLIS = 5000;
+
+    // Every engine callback runs on the main thread, which drains this queue until the launches are done.
+    private final BlockingQueue<Runnable> callbacks = new LinkedBlockingQueue<>();
+    private final LauncherEngine engine = new LauncherEngine(callbacks::add);
+    private int pendingBatches;
+    private boolean failed;
+
+    private HeadlessLauncher() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * @return true if {@code args} ask for a headless launch instead of the window.
+     */
+    public static boolean isHeadless(String[] args) {
+        for (String arg : args) {
+            if (LAUNCH_STARTUP_OPTION.equals(arg) || LAUNCH_OPTION.equals(arg) || SEARCH_OPTION.equals(arg)
+                    || DAEMON_OPTION.equals(arg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Does what {@code args} ask for and waits until every launch finished or failed (with {@code --daemon},
+     * until the process is stopped).
+     * @return The exit code.
+     */
+    public static int run(String[] args) {
+        boolean launchStartup = false;
+        boolean daemon = false;
+        List<String> names = new ArrayList<>();
+        String search = null;
+        for (int i = 0; i < args.length; i++) {
+            if (LAUNCH_STARTUP_OPTION.equals(args[i])) {
+                launchStartup = true;
+            } else if (DAEMON_OPTION.equals(args[i])) {
+                daemon = true;
+            } else if (LAUNCH_OPTION.equals(args[i]) && i + 1 < args.length) {
+                names.add(args[++i]);
+            } else if (SEARCH_OPTION.equals(args[i]) && i + 1 < args.length) {
+                search = args[++i];
+            } else {
+                System.err.println("HeadlessLauncher: Unknown option or missing argument: " + args[i]);
+                System.err.println("Usage: [" + LAUNCH_STARTUP_OPTION + "] [" + LAUNCH_OPTION + " <name>]... ["
+                        + SEARCH_OPTION + " <text>] [" + DAEMON_OPTION + "]");
+                return EXIT_USAGE;
+            }
+        }
+        if (!launchStartup && names.isEmpty() && search == null && !daemon) {
+            System.err.println("HeadlessLauncher: Nothing to launch.");
+            return EXIT_USAGE;
+        }
+        if (!daemon) {
+            Integer exitCode = forward(launchStartup, names, search);
+            if (exitCode != null) {
+                return exitCode;
+            }
+        }
+        try {
+            return new HeadlessLauncher().launch(launchStartup, names, search, daemon);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("HeadlessLauncher: Interrupted before all launches finished.");
+            return EXIT_LAUNCH_FAILED;
+        }
+    }
+
+    /**
+     * Hands the commands to a running instance.
+     * @return The exit code, or null if no instance is running.
+     */
+    private static Integer forward(boolean launchStartup, List<String> names, String search) {
+        List<String[]> requests = new ArrayList<>();
+        for (String name : names) {
+            requests.add(new String[] { LauncherDaemon.LAUNCH, name });
+        }
+        if (launchStartup) {
+            requests.add(new String[] { LauncherDaemon.LAUNCH_STARTUP, null });
+        }
+        if (search != null) {
+            requests.add(new String[] { LauncherDaemon.SEARCH, search });
+        }
+        Path socketPath = LauncherDaemon.defaultSocketPath();
+        int exitCode = EXIT_OK;
+        for (int i = 0; i < requests.size(); i++) {
+            String[] request = requests.get(i);
+            try {
+                List<String> lines = LauncherDaemon.send(socketPath, request[0], request[1]);
+                if (lines == null) {
+                    if (i == 0) {
+                        return null; // Nothing is running, launch from here
+                    }
+                    System.err.println("HeadlessLauncher: The running instance went away.");
+                    return EXIT_LAUNCH_FAILED;
+                }
+                for (String line : lines) {
+                    System.out.println(request[0].equals(LauncherDaemon.SEARCH) ? line : "HeadlessLauncher: " + line);
+                }
+            } catch (IOException e) {
+                System.err.println("HeadlessLauncher: " + e.getMessage());
+                exitCode = EXIT_LAUNCH_FAILED;
+            }
+        }
+        return exitCode;
+    }
+
+    private int launch(boolean launchStartup, List<String> names, String search, boolean daemon) throws InterruptedException {
+        try {
+            engine.load();
+        } catch (IOException | com.google.gson.JsonParseException e) {
+            System.err.println("HeadlessLauncher: !!! ERROR reading launchers data: " + e.getMessage());
+            return EXIT_USAGE;
+        }
+        if (daemon && !startDaemon()) {
+            return EXIT_USAGE;
+        }
+
+        List<LauncherItem> named = new ArrayList<>();
+        for (String name : names) {
+            LauncherItem item = engine.findByName(name);
+            if (item == null) {
+                System.err.println("HeadlessLauncher: No launcher named '" + name + "'.");
+                failed = true;
+            } else {
+                named.add(item);
+            }
+        }
+        if (!named.isEmpty()) {
+            pendingBatches++;
+            engine.launchAll(named, true, summary -> finishBatch("Launch", summary));
+        }
+        if (launchStartup) {
+            LaunchPlan plan = engine.startStartupPlan(new LaunchPlan.Listener() {
+                @Override
+                public void onStepChanged(LaunchPlan.Step step) {
+                }
+
+                @Override
+                public void onFinished(LaunchSummary summary) {
+                    callbacks.add(() -> finishBatch("Startup launch", summary));
+                }
+            });
+            if (plan == null) {
+                System.out.println("HeadlessLauncher: No startup launchers found.");
+            } else {
+                pendingBatches++;
+            }
+        }
+        if (search != null) {
+            try {
+                for (LauncherItem hit : engine.getSearchService().rank(search, SEARCH_RESULT_LIMIT, engine::getLaunchers).get()) {
+                    System.out.println(LauncherDaemon.describeHit(hit));
+                }
+            } catch (ExecutionException e) {
+                System.err.println("HeadlessLauncher: Search failed: " + e.getCause());
+                failed = true;
+            }
+        }
+
+        while (daemon || pendingBatches > 0) {
+            callbacks.take().run();
+        }
+        if (!engine.flush(SAVE_ON_EXIT_TIMEOUT_MILLIS)) {
+            System.err.println("HeadlessLauncher: Exiting before launch counts could be saved.");
+        }
+        return failed ? EXIT_LAUNCH_FAILED : EXIT_OK;
+    }
+
+    // Serves other invocations until the process is stopped; the socket and queued saves are cleaned up on the way out.
+    private boolean startDaemon() {
+        LauncherDaemon daemon = new LauncherDaemon(engine, LauncherDaemon.defaultSocketPath(), null);
+        try {
+            if (!daemon.start()) {
+                System.err.println("HeadlessLauncher: NexLaunch is already running.");
+                return false;
+            }
+        } catch (IOException e) {
+            System.err.println("HeadlessLauncher: !!! ERROR creating the socket: " + e.getMessage());
+            return false;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            daemon.close();
+            engine.flush(SAVE_ON_EXIT_TIMEOUT_MILLIS);
+        }, "launcher-daemon-shutdown"));
+        return true;
+    }
+
+    private void finishBatch(String title, LaunchSummary summary) {
+        pendingBatches--;
+        if (summary.hasFailures()) {
+            System.err.println("HeadlessLauncher: " + title + ": " + summary.describe(MAX_REPORTED_FAILURES));
+            failed = true;
+        } else {
+            System.out.println("HeadlessLauncher: " + title + ": " + summary.getLaunched().size() + " of "
+                    + summary.getTotal() + " launched in " + summary.getElapsedMillis() + " ms.");
+        }
+    }
+}
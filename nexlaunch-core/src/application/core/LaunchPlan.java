@@ -0,0 +1,300 @@
+package application.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A timed launch plan for the startup launchers, so logging in does not fire every startup item at once.
+ *
+ * Startup launchers are ordered by {@link LauncherItem#getStartupPriority()} (higher first, ties keep
+ * list order) and expanded into one step per launchable item. A step starts no earlier than its
+ * launcher's delay after the plan started, steps of a launcher marked "after previous" wait until every
+ * earlier step has settled (launched, failed or timed out), and all steps are spaced so that at most
+ * {@code nexlaunch.startupLaunchesPerSecond} (default 4, 0 for no limit) start per second. The launches
+ * themselves run on the {@link LaunchScheduler} pool; the plan only decides when each one is submitted.
+ *
+ * A plan runs once, on its own daemon thread, and can be cancelled at any time: steps not yet submitted
+ * are marked {@link State#CANCELLED}, launches already handed to the desktop run to completion.
+ */
+public class LaunchPlan {
+
+    private static final int DEFAULT_LAUNCHES_PER_SECOND = 4;
+
+    public enum State {
+        QUEUED("queued"),
+        WAITING("waiting"),
+        LAUNCHING("launching"),
+        LAUNCHED("launched"),
+        FAILED("failed"),
+        TIMED_OUT("timed out"),
+        CANCELLED("cancelled");
+
+        private final String label;
+
+        State(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public boolean isSettled() {
+            return this == LAUNCHED || this == FAILED || this == TIMED_OUT || this == CANCELLED;
+        }
+    }
+
+    /**
+     * One item to launch, with the timing it inherited from the startup launcher it belongs to.
+     */
+    public static final class Step {
+        private final LauncherItem launcher;
+        private final LauncherItem target;
+        private final long delayMillis;
+        private final boolean afterPrevious;
+        private volatile State state = State.QUEUED;
+
+        Step(LauncherItem launcher, LauncherItem target, long delayMillis, boolean afterPrevious) {
+            this.launcher = launcher;
+            this.target = target;
+            this.delayMillis = delayMillis;
+            this.afterPrevious = afterPrevious;
+        }
+
+        // The startup launcher (top-level item or folder) this step was expanded from.
+        public LauncherItem getLauncher() {
+            return launcher;
+        }
+
+        public LauncherItem getTarget() {
+            return target;
+        }
+
+        public long getDelayMillis() {
+            return delayMillis;
+        }
+
+        public boolean isAfterPrevious() {
+            return afterPrevious;
+        }
+
+        public State getState() {
+            return state;
+        }
+    }
+
+    /**
+     * Receives progress. Calls arrive on the plan thread or on launch pool threads; hop to the FX thread before touching the UI.
+     */
+    public interface Listener {
+        void onStepChanged(Step step);
+
+        void onFinished(LaunchSummary summary);
+    }
+
+    private final List<Step> steps;
+    private final Map<LauncherItem, List<Step>> stepsByItem = new IdentityHashMap<>();
+    private final long minIntervalNanos;
+    private volatile boolean cancelled;
+    private volatile boolean finished;
+    private Thread runner;
+
+    public LaunchPlan(List<LauncherItem> startupLaunchers) {
+        this(startupLaunchers, Integer.getInteger("nexlaunch.startupLaunchesPerSecond", DEFAULT_LAUNCHES_PER_SECOND));
+    }
+
+    public LaunchPlan(List<LauncherItem> startupLaunchers, int launchesPerSecond) {
+        List<Step> planned = new ArrayList<>();
+        for (LauncherItem launcher : inLaunchOrder(startupLaunchers)) {
+            List<LauncherItem> targets = new ArrayList<>();
+            LaunchScheduler.collectTargets(Collections.singletonList(launcher), targets);
+            for (int i = 0; i < targets.size(); i++) {
+                // Only the launcher's first step waits for the earlier ones; its own steps follow at the rate limit.
+                Step step = new Step(launcher, targets.get(i), launcher.getStartupDelayMillis(), i == 0 && launcher.isStartupAfterPrevious());
+                planned.add(step);
+                stepsByItem.computeIfAbsent(launcher, key -> new ArrayList<>()).add(step);
+                if (targets.get(i) != launcher) {
+                    stepsByItem.computeIfAbsent(targets.get(i), key -> new ArrayList<>()).add(step);
+                }
+            }
+        }
+        this.steps = Collections.unmodifiableList(planned);
+        this.minIntervalNanos = launchesPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / launchesPerSecond : 0;
+    }
+
+    /**
+     * @return {@code launchers} in the order a plan launches them: by descending priority, ties in list order.
+     */
+    public static List<LauncherItem> inLaunchOrder(List<LauncherItem> launchers) {
+        List<LauncherItem> ordered = new ArrayList<>(launchers);
+        ordered.sort(Comparator.comparingInt(LauncherItem::getStartupPriority).reversed()); // List.sort is stable
+        return ordered;
+    }
+
+    /**
+     * @return A short description of the plan settings of {@code launcher}, e.g. "priority 2, +5 s, after previous",
+     *         or null if it uses the defaults.
+     */
+    public static String describeSchedule(LauncherItem launcher) {
+        if (!launcher.hasStartupSchedule()) {
+            return null;
+        }
+        List<String> parts = new ArrayList<>();
+        if (launcher.getStartupPriority() != 0) {
+            parts.add("priority " + launcher.getStartupPriority());
+        }
+        if (launcher.getStartupDelayMillis() > 0) {
+            long millis = launcher.getStartupDelayMillis();
+            parts.add(millis % 1000 == 0 ? "+" + millis / 1000 + " s" : "+" + millis + " ms");
+        }
+        if (launcher.isStartupAfterPrevious()) {
+            parts.add("after previous");
+        }
+        return String.join(", ", parts);
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return The progress of {@code item} in this plan: the state of a single launch, "n/m launched" for a
+     *         folder while it runs, or null if the item is not part of the plan.
+     */
+    public String describeProgress(LauncherItem item) {
+        List<Step> itemSteps = stepsByItem.get(item);
+        if (itemSteps == null) {
+            return null;
+        }
+        if (itemSteps.size() == 1 && itemSteps.get(0).getTarget() == item) {
+            return itemSteps.get(0).getState().getLabel();
+        }
+        int launched = 0;
+        int problems = 0;
+        int settled = 0;
+        for (Step step : itemSteps) {
+            State state = step.getState();
+            if (state == State.LAUNCHED) {
+                launched++;
+            } else if (state == State.FAILED || state == State.TIMED_OUT) {
+                problems++;
+            }
+            if (state.isSettled()) {
+                settled++;
+            }
+        }
+        String progress = launched + "/" + itemSteps.size() + " launched";
+        if (problems > 0) {
+            progress += ", " + problems + " failed";
+        }
+        if (settled == itemSteps.size() && launched + problems < settled) {
+            progress += ", " + (settled - launched - problems) + " cancelled";
+        }
+        return progress;
+    }
+
+    /**
+     * Starts the plan on its own daemon thread and returns at once. A plan can only be started once.
+     */
+    public synchronized void start(LaunchScheduler scheduler, Listener listener) {
+        if (runner != null) {
+            throw new IllegalStateException("Launch plan already started");
+        }
+        runner = new Thread(() -> run(scheduler, listener), "launcher-plan");
+        runner.setDaemon(true);
+        runner.start();
+    }
+
+    /**
+     * Stops submitting launches; steps still waiting are cancelled.
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+        if (runner != null) {
+            runner.interrupt();
+        }
+    }
+
+    private void run(LaunchScheduler scheduler, Listener listener) {
+        System.out.println("LaunchPlan: Launching " + steps.size() + " startup items"
+                + (minIntervalNanos > 0 ? ", at most one every " + TimeUnit.NANOSECONDS.toMillis(minIntervalNanos) + " ms." : "."));
+        LaunchScheduler.Tally tally = new LaunchScheduler.Tally(steps.size(), scheduler.getTimeoutMillis());
+        List<CompletableFuture<Void>> submitted = new ArrayList<>();
+        long start = System.nanoTime();
+        long nextSlot = start;
+        int next = 0;
+        try {
+            for (; next < steps.size() && !cancelled; next++) {
+                Step step = steps.get(next);
+                long due = Math.max(nextSlot, start + TimeUnit.MILLISECONDS.toNanos(step.getDelayMillis()));
+                if (step.isAfterPrevious() || due > System.nanoTime()) {
+                    setState(step, State.WAITING, listener);
+                }
+                if (step.isAfterPrevious()) {
+                    awaitSettled(submitted);
+                }
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                if (cancelled) {
+                    break;
+                }
+                setState(step, State.LAUNCHING, listener);
+                submitted.add(scheduler.submit(step.getTarget()).whenComplete((ignored, error) -> {
+                    tally.record(step.getTarget(), error);
+                    setState(step, stateFor(error), listener);
+                }));
+                nextSlot = Math.max(System.nanoTime(), due) + minIntervalNanos;
+            }
+        } catch (InterruptedException e) {
+            // Cancelled while waiting; the remaining steps are marked below.
+        }
+        for (; next < steps.size(); next++) {
+            tally.recordCancelled();
+            setState(steps.get(next), State.CANCELLED, listener);
+        }
+        CompletableFuture.allOf(submitted.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) -> {
+            finished = true;
+            listener.onFinished(tally.finish());
+        });
+    }
+
+    private static void awaitSettled(List<CompletableFuture<Void>> submitted) throws InterruptedException {
+        try {
+            CompletableFuture.allOf(submitted.toArray(new CompletableFuture<?>[0])).get();
+        } catch (ExecutionException e) {
+            // A failed or timed-out launch has settled too.
+        }
+    }
+
+    private static State stateFor(Throwable error) {
+        if (error == null) {
+            return State.LAUNCHED;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof TimeoutException ? State.TIMED_OUT : State.FAILED;
+    }
+
+    private static void setState(Step step, State state, Listener listener) {
+        step.state = state;
+        listener.onStepChanged(step);
+    }
+}
@@ -0,0 +1,199 @@
+package application.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs batches of launches off the FX thread on a small bounded pool, so slow desktop handoffs neither
+ * block the UI nor run one after another.
+ *
+ * At most {@code nexlaunch.launchParallelism} launches run at once (default: the number of processors,
+ * capped at 4). A launch that has not returned after {@code nexlaunch.launchTimeoutMillis} (default 10000)
+ * is reported as timed out; the desktop call itself cannot be interrupted, so it keeps its pool thread
+ * until it returns. Failures are gathered into one {@link LaunchSummary} per batch.
+ *
+ * When a {@link BrowserCommand} is configured, {@link #launchAll} hands all web URLs of a batch to it in
+ * as few processes as the command line limit allows, instead of one browser round-trip per URL; each
+ * handoff counts as one launch towards the parallelism and the timeout.
+ */
+public class LaunchScheduler {
+
+    private static final int DEFAULT_PARALLELISM = Math.min(4, Runtime.getRuntime().availableProcessors());
+    private static final long DEFAULT_TIMEOUT_MILLIS = 10_000;
+
+    private final ThreadPoolExecutor pool;
+    private final long timeoutMillis;
+    private final BrowserCommand browserCommand; // Null to open every URL through the desktop
+
+    public LaunchScheduler() {
+        this(Integer.getInteger("nexlaunch.launchParallelism", DEFAULT_PARALLELISM),
+                Long.getLong("nexlaunch.launchTimeoutMillis", DEFAULT_TIMEOUT_MILLIS),
+                BrowserCommand.fromSystemProperties());
+    }
+
+    public LaunchScheduler(int parallelism, long timeoutMillis, BrowserCommand browserCommand) {
+        int threads = Math.max(1, parallelism);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "launcher-launch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+        this.pool.allowCoreThreadTimeOut(true); // No idle threads once the startup launches are done
+        this.timeoutMillis = Math.max(1, timeoutMillis);
+        this.browserCommand = browserCommand;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Launches every launchable item in {@code items} (folders are expanded recursively, items
+     * without a URL/path are skipped) and returns at once.
+     * @param onComplete Called once with the summary, on a pool thread; hop to the FX thread before touching the UI.
+     */
+    public void launchAll(List<LauncherItem> items, Consumer<LaunchSummary> onComplete) {
+        List<LauncherItem> targets = new ArrayList<>();
+        collectTargets(items, targets);
+
+        Tally tally = new Tally(targets.size(), timeoutMillis);
+        List<CompletableFuture<?>> launches = new ArrayList<>();
+        List<LauncherItem> webTargets = new ArrayList<>();
+        for (LauncherItem item : targets) {
+            if (browserCommand != null && DesktopLauncher.isWebUrl(item.getUrlOrPath())) {
+                webTargets.add(item);
+            } else {
+                launches.add(submit(item).whenComplete((ignored, error) -> tally.record(item, error)));
+            }
+        }
+        if (!webTargets.isEmpty()) {
+            launches.addAll(submitBrowserBatches(webTargets, tally));
+        }
+        CompletableFuture.allOf(launches.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((ignored, error) -> onComplete.accept(tally.finish()));
+    }
+
+    private List<CompletableFuture<?>> submitBrowserBatches(List<LauncherItem> webTargets, Tally tally) {
+        List<String> urls = new ArrayList<>(webTargets.size());
+        for (LauncherItem item : webTargets) {
+            urls.add(item.getUrlOrPath());
+        }
+        List<CompletableFuture<?>> handoffs = new ArrayList<>();
+        int first = 0;
+        for (List<String> chunk : browserCommand.chunk(urls)) {
+            List<LauncherItem> items = webTargets.subList(first, first + chunk.size());
+            first += chunk.size();
+            handoffs.add(CompletableFuture.runAsync(() -> openInBrowser(chunk, tally), pool)
+                    .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                    .whenComplete((ignored, error) -> {
+                        for (LauncherItem item : items) {
+                            tally.record(item, error);
+                        }
+                    }));
+        }
+        return handoffs;
+    }
+
+    private void openInBrowser(List<String> urls, Tally tally) {
+        long start = System.nanoTime();
+        try {
+            browserCommand.open(urls);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println("LaunchScheduler: Handed " + urls.size() + " URLs to " + browserCommand.getCommand().get(0) + " in " + millis + " ms.");
+        tally.recordBrowserHandoff(urls.size(), millis);
+    }
+
+    /**
+     * Starts one launch on the pool.
+     * @return Completes when the desktop accepted the item, or exceptionally when it failed or timed out
+     *         (a {@link TimeoutException}, possibly wrapped in a {@link CompletionException}).
+     */
+    public CompletableFuture<Void> submit(LauncherItem item) {
+        return CompletableFuture.runAsync(() -> launch(item), pool).orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Collects the outcomes of one batch of launches; thread-safe, as launches complete on any pool thread.
+    static final class Tally {
+        private final int total;
+        private final long timeoutMillis;
+        private final long start = System.nanoTime();
+        private final List<LauncherItem> launched = new ArrayList<>();
+        private final List<String> failures = new ArrayList<>();
+        private final List<String> browserHandoffs = new ArrayList<>();
+        private int timedOut;
+        private int cancelled;
+
+        Tally(int total, long timeoutMillis) {
+            this.total = total;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        synchronized void record(LauncherItem item, Throwable error) {
+            if (error == null) {
+                launched.add(item);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof TimeoutException) {
+                timedOut++;
+                failures.add(item.getName() + ": no response after " + timeoutMillis + " ms");
+            } else {
+                failures.add(item.getName() + ": " + (cause.getMessage() != null ? cause.getMessage().trim() : cause.getClass().getSimpleName()));
+            }
+        }
+
+        synchronized void recordBrowserHandoff(int urlCount, long millis) {
+            browserHandoffs.add(urlCount + " URLs in " + millis + " ms");
+        }
+
+        synchronized void recordCancelled() {
+            cancelled++;
+        }
+
+        synchronized LaunchSummary finish() {
+            LaunchSummary summary = new LaunchSummary(total, launched, failures, browserHandoffs, timedOut, cancelled,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            System.out.println("LaunchScheduler: " + summary.describe(Integer.MAX_VALUE));
+            return summary;
+        }
+    }
+
+    private static void launch(LauncherItem item) {
+        System.out.println("LaunchScheduler: Launching item: " + item.getName() + " (" + item.getUrlOrPath() + ")");
+        try {
+            DesktopLauncher.open(item.getUrlOrPath());
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    static void collectTargets(List<LauncherItem> items, List<LauncherItem> targets) {
+        if (items == null) {
+            return;
+        }
+        for (LauncherItem item : items) {
+            if (item.isFolder()) {
+                collectTargets(item.getChildren(), targets);
+            } else if (item.getUrlOrPath() != null && !item.getUrlOrPath().trim().isEmpty()) {
+                targets.add(item);
+            } else {
+                System.out.println("LaunchScheduler: Skipping item with no launch path/URL: " + item.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package application.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a batch of launches run by {@link LaunchScheduler} or a {@link LaunchPlan}, reported once when the batch is done
+ * instead of one alert per failed item.
+ */
+public class LaunchSummary {
+
+    private final int total;
+    private final List<LauncherItem> launched;
+    private final List<String> failures;
+    private final List<String> browserHandoffs;
+    private final int timedOut;
+    private final int cancelled;
+    private final long elapsedMillis;
+
+    LaunchSummary(int total, List<LauncherItem> launched, List<String> failures, List<String> browserHandoffs,
+            int timedOut, int cancelled, long elapsedMillis) {
+        this.total = total;
+        this.launched = Collections.unmodifiableList(new ArrayList<>(launched));
+        this.failures = Collections.unmodifiableList(new ArrayList<>(failures));
+        this.browserHandoffs = Collections.unmodifiableList(new ArrayList<>(browserHandoffs));
+        this.timedOut = timedOut;
+        this.cancelled = cancelled;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    // Items the desktop accepted, in completion order.
+    public List<LauncherItem> getLaunched() {
+        return launched;
+    }
+
+    // One "name: reason" line per item that failed or timed out.
+    public List<String> getFailures() {
+        return failures;
+    }
+
+    // One "n URLs in t ms" line per batch of URLs handed to the browser command in one process.
+    public List<String> getBrowserHandoffs() {
+        return browserHandoffs;
+    }
+
+    public int getTimedOut() {
+        return timedOut;
+    }
+
+    // Items of a launch plan that were never started because the plan was cancelled (not failures).
+    public int getCancelled() {
+        return cancelled;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    /**
+     * @return A short report for an alert, listing at most {@code maxLines} failures.
+     */
+    public String describe(int maxLines) {
+        StringBuilder text = new StringBuilder();
+        text.append(launched.size()).append(" of ").append(total).append(" launched in ").append(elapsedMillis).append(" ms");
+        if (timedOut > 0) {
+            text.append(" (").append(timedOut).append(" timed out)");
+        }
+        if (cancelled > 0) {
+            text.append(", ").append(cancelled).append(" cancelled");
+        }
+        text.append('.');
+        if (!browserHandoffs.isEmpty()) {
+            text.append(" Browser handoffs: ").append(String.join(", ", browserHandoffs)).append('.');
+        }
+        for (int i = 0; i < failures.size() && i < maxLines; i++) {
+            text.append('\n').append(failures.get(i));
+        }
+        if (failures.size() > maxLines) {
+            text.append("\n... and ").append(failures.size() - maxLines).append(" more.");
+        }
+        return text.toString();
+    }
+}
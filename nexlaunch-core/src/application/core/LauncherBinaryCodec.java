@@ -0,0 +1,501 @@
+package application.core;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compact binary encoding of a LauncherItem tree, used as an alternative to the JSON data file.
+ *
+ * Layout (big-endian, "varint" = unsigned LEB128):
+ * <pre>
+ *   "NXLB"  u16 version  u16 flags(0)  i64 generation  i64 lastId (highest item id handed out when written)
+ *   varint prefixCount, then prefixCount strings        -- shared URL/path prefixes
+ *   varint topLevelCount, then the items in pre-order:
+ *     u8 flags (1 = folder, 2 = startup, 4 = has launch stats, 8 = has startup schedule, 16 = after previous, 32 = has id)
+ *     string name
+ *     id: varlong id
+ *     launch stats: varint launchCount, i64 lastLaunchedAt (epoch millis)
+ *     startup schedule: i32 priority, varint delayMillis
+ *     folder: varint childCount, varint blockLength, then blockLength bytes holding the children
+ *     leaf:   varint prefixRef (0 = none, n = prefix n-1), string suffix
+ *   u32 CRC32 of everything before it
+ * </pre>
+ * Strings are varint (byteLength + 1) followed by UTF-8 bytes; a length of 0 encodes null.
+ *
+ * Because every folder's children form a self-contained block, {@link #read} only decodes the
+ * top-level items; each folder decodes its block the first time its children are accessed
+ * (see {@link LauncherItem#setPendingChildren}). Writing a folder whose children were never
+ * loaded copies its block verbatim instead of decoding and re-encoding it.
+ * Version 2, 3 and 4 files (no launch stats, no startup schedule, no ids or lastId) are still read, as are
+ * version 1 files (no block lengths), eagerly. Their items are numbered from a range of ids reserved when the
+ * file is read, by their offset in it, so a block decodes to the same ids however often it is decoded. Their
+ * folder blocks are never copied verbatim, though: they are re-encoded with those ids, which makes the ids
+ * persistent from the next snapshot on. The header's lastId keeps new items from taking ids that are still
+ * sitting in undecoded blocks.
+ */
+public class LauncherBinaryCodec {
+
+    static final byte[] MAGIC = {'N', 'X', 'L', 'B'};
+    static final int VERSION = 5;
+    private static final int VERSION_NO_IDS = 4; // Same item layout; the id flag never occurs and there is no lastId
+    private static final int VERSION_NO_SCHEDULE = 3; // Same layout; the schedule flags never occur
+    private static final int VERSION_NO_STATS = 2; // Same layout; neither stats nor schedule flags occur
+    private static final int VERSION_EAGER = 1;
+
+    private static final int FLAG_FOLDER = 1;
+    private static final int FLAG_STARTUP = 2;
+    private static final int FLAG_STATS = 4;
+    private static final int FLAG_SCHEDULE = 8;
+    private static final int FLAG_AFTER_PREVIOUS = 16;
+    private static final int FLAG_ID = 32;
+    static final int HEADER_SIZE = MAGIC.length + 2 + 2 + 8;
+    private static final int CRC_SIZE = 4;
+    private static final int MIN_PREFIX_LENGTH = 8; // Shorter prefixes cost more as references than they save
+
+    public LauncherBinaryCodec() {
+        // Stateless; one instance can write and read any number of snapshots
+    }
+
+    /**
+     * @return true if {@code buffer} (read from its current position) starts with the binary snapshot magic.
+     */
+    public static boolean hasMagic(ByteBuffer buffer) {
+        if (buffer.remaining() < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(buffer.position() + i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encodes {@code launchers} to {@code out}. The stream is flushed but not closed.
+     */
+    public void write(OutputStream out, long generation, List<LauncherItem> launchers) throws IOException {
+        // Blocks copied verbatim refer to the prefix table they were decoded with, so that table is
+        // kept as the start of the new one; further prefixes are appended after it.
+        String[] reusedTable = findBlockPrefixTable(launchers);
+        Map<String, Integer> prefixes = new LinkedHashMap<>();
+        if (reusedTable != null) {
+            for (String prefix : reusedTable) {
+                prefixes.putIfAbsent(prefix, prefixes.size());
+            }
+        }
+        collectPrefixes(launchers, prefixes, reusedTable);
+
+        CRC32 crc = new CRC32();
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(out, crc), 64 * 1024));
+        data.write(MAGIC);
+        data.writeShort(VERSION);
+        data.writeShort(0);
+        data.writeLong(generation);
+        data.writeLong(LauncherItem.getLastId());
+
+        writeVarint(data, prefixes.size());
+        for (String prefix : prefixes.keySet()) {
+            writeString(data, prefix);
+        }
+
+        writeVarint(data, launchers.size());
+        for (LauncherItem item : launchers) {
+            writeItem(data, item, prefixes, reusedTable);
+        }
+        data.flush();
+
+        // The checksum itself is written past the CheckedOutputStream.
+        new DataOutputStream(out).writeInt((int) crc.getValue());
+        out.flush();
+    }
+
+    /**
+     * @return The generation in the header at the start of {@code header} (which passed {@link #hasMagic}),
+     *         or -1 if the header is cut short. The checksum is not checked.
+     */
+    static long peekGeneration(ByteBuffer header) {
+        if (header.remaining() < HEADER_SIZE) {
+            return -1;
+        }
+        return header.order(ByteOrder.BIG_ENDIAN).getLong(header.position() + MAGIC.length + 2 + 2);
+    }
+
+    /**
+     * Decodes a snapshot from {@code bytes}, the whole content of a data file.
+     * Folders that are decoded lazily read their blocks from {@code bytes} in place, so the caller must not
+     * change the array afterwards; the file itself is not referenced and can be replaced or rotated right away.
+     * @throws IOException If the data is truncated, fails its checksum or has an unsupported version.
+     */
+    LauncherSnapshot read(byte[] bytes) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(bytes).order(ByteOrder.BIG_ENDIAN);
+        if (in.remaining() < HEADER_SIZE + CRC_SIZE || !hasMagic(in)) {
+            throw new IOException("Not a NexLaunch binary snapshot");
+        }
+
+        int crcOffset = in.limit() - CRC_SIZE;
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, crcOffset);
+        if ((int) crc.getValue() != in.getInt(crcOffset)) {
+            throw new IOException("Binary snapshot checksum mismatch (file is truncated or corrupted)");
+        }
+        in.limit(crcOffset);
+
+        try {
+            in.position(MAGIC.length);
+            int version = Short.toUnsignedInt(in.getShort());
+            if (version != VERSION && version != VERSION_NO_IDS && version != VERSION_NO_SCHEDULE
+                    && version != VERSION_NO_STATS && version != VERSION_EAGER) {
+                throw new IOException("Unsupported binary snapshot version " + version);
+            }
+            in.getShort(); // flags, reserved
+            long generation = in.getLong();
+            if (version == VERSION) {
+                LauncherItem.reserveIdsUpTo(in.getLong());
+            }
+
+            byte[] data = null;
+            long legacyIdBase = 0;
+            if (version != VERSION_EAGER) {
+                data = bytes; // Blocks are addressed by their offset in the file
+                if (version != VERSION) {
+                    legacyIdBase = LauncherItem.reserveIds(data.length);
+                }
+            }
+
+            byte[] scratch = new byte[256];
+            int prefixCount = readCount(in);
+            String[] prefixes = new String[prefixCount];
+            for (int i = 0; i < prefixCount; i++) {
+                prefixes[i] = readString(in, scratch);
+            }
+
+            int count = readCount(in);
+            List<LauncherItem> launchers = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                launchers.add(data != null ? readItem(in, prefixes, scratch, data, legacyIdBase) : readEagerItem(in, prefixes, scratch));
+            }
+            if (in.hasRemaining()) {
+                throw new IOException("Unexpected data after binary snapshot items");
+            }
+            LauncherStrings.compact(launchers);
+            return new LauncherSnapshot(generation, launchers);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Binary snapshot is malformed", e);
+        }
+    }
+
+    // Finds the prefix table of the first folder whose children are still an undecoded block that stores ids.
+    private static String[] findBlockPrefixTable(List<LauncherItem> items) {
+        for (LauncherItem item : items) {
+            if (!item.isFolder()) {
+                continue;
+            }
+            if (item.getPendingChildren() instanceof BlockLoader && ((BlockLoader) item.getPendingChildren()).storesIds()) {
+                return ((BlockLoader) item.getPendingChildren()).prefixes;
+            }
+            if (item.isChildrenLoaded() && item.getChildren() != null) {
+                String[] table = findBlockPrefixTable(item.getChildren());
+                if (table != null) {
+                    return table;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Only blocks that store ids are copied; an older block is decoded and written again with its items' ids.
+    private static boolean isReusableBlock(LauncherItem folder, String[] reusedTable) {
+        LauncherItem.ChildLoader loader = folder.getPendingChildren();
+        return reusedTable != null && loader instanceof BlockLoader && ((BlockLoader) loader).storesIds()
+                && ((BlockLoader) loader).prefixes == reusedTable;
+    }
+
+    private static void collectPrefixes(List<LauncherItem> items, Map<String, Integer> prefixes, String[] reusedTable) {
+        for (LauncherItem item : items) {
+            if (item.isFolder()) {
+                if (!isReusableBlock(item, reusedTable) && item.getChildren() != null) {
+                    collectPrefixes(item.getChildren(), prefixes, reusedTable);
+                }
+            } else {
+                String prefix = prefixOf(item.getUrlOrPath());
+                if (prefix != null) {
+                    prefixes.putIfAbsent(prefix, prefixes.size());
+                }
+            }
+        }
+    }
+
+    /**
+     * The shareable part of a URL or path: "scheme://host/" for URLs, the parent directory for file paths.
+     */
+    static String prefixOf(String urlOrPath) {
+        if (urlOrPath == null) {
+            return null;
+        }
+        int end;
+        int scheme = urlOrPath.indexOf("://");
+        if (scheme > 0) {
+            int slash = urlOrPath.indexOf('/', scheme + 3);
+            end = slash < 0 ? urlOrPath.length() : slash + 1;
+        } else {
+            end = Math.max(urlOrPath.lastIndexOf('\\'), urlOrPath.lastIndexOf('/')) + 1;
+        }
+        return end >= MIN_PREFIX_LENGTH ? urlOrPath.substring(0, end) : null;
+    }
+
+    private static void writeItem(DataOutputStream data, LauncherItem item, Map<String, Integer> prefixes,
+            String[] reusedTable) throws IOException {
+        boolean hasStats = item.getLaunchCount() > 0;
+        boolean hasSchedule = item.hasStartupSchedule();
+        int flags = (item.isFolder() ? FLAG_FOLDER : 0) | (item.isStartupLauncher() ? FLAG_STARTUP : 0) | (hasStats ? FLAG_STATS : 0)
+                | (hasSchedule ? FLAG_SCHEDULE : 0) | (item.isStartupAfterPrevious() ? FLAG_AFTER_PREVIOUS : 0) | FLAG_ID;
+        data.writeByte(flags);
+        writeString(data, item.getName());
+        writeVarlong(data, item.getId());
+        if (hasStats) {
+            writeVarint(data, item.getLaunchCount());
+            data.writeLong(item.getLastLaunchedAt());
+        }
+        if (hasSchedule) {
+            data.writeInt(item.getStartupPriority());
+            writeVarint(data, (int) Math.min(Integer.MAX_VALUE, item.getStartupDelayMillis()));
+        }
+        if (item.isFolder()) {
+            if (isReusableBlock(item, reusedTable)) {
+                BlockLoader block = (BlockLoader) item.getPendingChildren();
+                writeVarint(data, block.count);
+                writeVarint(data, block.length);
+                data.write(block.data, block.offset, block.length);
+                return;
+            }
+            List<LauncherItem> children = item.getChildren();
+            int childCount = children == null ? 0 : children.size();
+            // The block length has to precede the block, so children are encoded into a buffer first.
+            ByteArrayOutputStream blockBytes = new ByteArrayOutputStream();
+            DataOutputStream block = new DataOutputStream(blockBytes);
+            for (int i = 0; i < childCount; i++) {
+                writeItem(block, children.get(i), prefixes, reusedTable);
+            }
+            writeVarint(data, childCount);
+            writeVarint(data, blockBytes.size());
+            blockBytes.writeTo(data);
+        } else {
+            String urlOrPath = item.getUrlOrPath();
+            String prefix = prefixOf(urlOrPath);
+            if (prefix != null) {
+                writeVarint(data, prefixes.get(prefix) + 1);
+                writeString(data, urlOrPath.substring(prefix.length()));
+            } else {
+                writeVarint(data, 0);
+                writeString(data, urlOrPath);
+            }
+        }
+    }
+
+    // Reads a version 2 to 5 item from {@code in}, which wraps {@code data}; folder blocks are left undecoded.
+    // Without a stored id, an item is numbered legacyIdBase + its offset in data (or gets a new id if that is 0).
+    private static LauncherItem readItem(ByteBuffer in, String[] prefixes, byte[] scratch, byte[] data, long legacyIdBase)
+            throws IOException {
+        int offset = in.position();
+        int flags = in.get();
+        String name = readString(in, scratch);
+        long id = (flags & FLAG_ID) != 0 ? readVarlong(in) : legacyIdBase == 0 ? 0 : legacyIdBase + offset;
+        boolean startup = (flags & FLAG_STARTUP) != 0;
+        int launchCount = 0;
+        long lastLaunchedAt = 0;
+        if ((flags & FLAG_STATS) != 0) {
+            launchCount = readVarint(in);
+            lastLaunchedAt = in.getLong();
+        }
+        int priority = 0;
+        long delayMillis = 0;
+        if ((flags & FLAG_SCHEDULE) != 0) {
+            priority = in.getInt();
+            delayMillis = readVarint(in);
+        }
+        boolean afterPrevious = (flags & FLAG_AFTER_PREVIOUS) != 0;
+        if ((flags & FLAG_FOLDER) != 0) {
+            LauncherItem folder = LauncherItem.restore(id, name, null, true, startup);
+            folder.setLaunchStats(launchCount, lastLaunchedAt);
+            folder.setStartupSchedule(priority, delayMillis, afterPrevious);
+            int childCount = readCount(in);
+            int blockLength = readVarint(in);
+            if (blockLength > in.remaining() || childCount > blockLength) {
+                throw new IOException("Folder block of " + blockLength + " bytes runs past the end of the snapshot");
+            }
+            if (childCount > 0) {
+                folder.setPendingChildren(new BlockLoader(data, in.position(), blockLength, childCount, prefixes, legacyIdBase));
+            }
+            in.position(in.position() + blockLength);
+            return folder;
+        }
+        LauncherItem leaf = readLeaf(in, id, name, startup, prefixes, scratch);
+        leaf.setLaunchStats(launchCount, lastLaunchedAt);
+        leaf.setStartupSchedule(priority, delayMillis, afterPrevious);
+        return leaf;
+    }
+
+    private static LauncherItem readEagerItem(ByteBuffer in, String[] prefixes, byte[] scratch) throws IOException {
+        int flags = in.get();
+        String name = readString(in, scratch);
+        boolean startup = (flags & FLAG_STARTUP) != 0;
+        if ((flags & FLAG_FOLDER) != 0) {
+            LauncherItem folder = new LauncherItem(name);
+            folder.setStartupLauncher(startup);
+            int childCount = readCount(in);
+            for (int i = 0; i < childCount; i++) {
+                folder.addChild(readEagerItem(in, prefixes, scratch));
+            }
+            return folder;
+        }
+        return readLeaf(in, 0, name, startup, prefixes, scratch);
+    }
+
+    private static LauncherItem readLeaf(ByteBuffer in, long id, String name, boolean startup, String[] prefixes, byte[] scratch) throws IOException {
+        int prefixRef = readVarint(in);
+        String suffix = readString(in, scratch);
+        String urlOrPath = prefixRef == 0 ? suffix : prefixes[prefixRef - 1] + (suffix == null ? "" : suffix);
+        return LauncherItem.restore(id, name, urlOrPath, false, startup);
+    }
+
+    /**
+     * Decodes one folder's children block. The backing array is never modified, so the loader can be
+     * shared by copies of the folder and called from any thread.
+     */
+    private static final class BlockLoader implements LauncherItem.ChildLoader {
+        final byte[] data;
+        final int offset;
+        final int length;
+        final int count;
+        final String[] prefixes;
+        final long legacyIdBase; // 0 if the items store their ids
+
+        BlockLoader(byte[] data, int offset, int length, int count, String[] prefixes, long legacyIdBase) {
+            this.data = data;
+            this.offset = offset;
+            this.length = length;
+            this.count = count;
+            this.prefixes = prefixes;
+            this.legacyIdBase = legacyIdBase;
+        }
+
+        boolean storesIds() {
+            return legacyIdBase == 0;
+        }
+
+        @Override
+        public List<LauncherItem> load() {
+            ByteBuffer in = ByteBuffer.wrap(data, offset, length);
+            byte[] scratch = new byte[256];
+            List<LauncherItem> children = new ArrayList<>(count);
+            try {
+                for (int i = 0; i < count; i++) {
+                    children.add(readItem(in, prefixes, scratch, data, legacyIdBase));
+                }
+            } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e) {
+                // The whole file passed its checksum when it was loaded, so this means a codec bug.
+                throw new IllegalStateException("Binary snapshot folder block is malformed", e);
+            }
+            if (in.hasRemaining()) {
+                throw new IllegalStateException("Unexpected data after folder block items");
+            }
+            LauncherStrings.compact(children);
+            return children;
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        if (value == null) {
+            writeVarint(data, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(data, bytes.length + 1);
+        data.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in, byte[] scratch) throws IOException {
+        int encodedLength = readVarint(in);
+        if (encodedLength == 0) {
+            return null;
+        }
+        int length = encodedLength - 1;
+        if (length > in.remaining()) {
+            throw new IOException("String length " + length + " runs past the end of the snapshot");
+        }
+        byte[] bytes = length <= scratch.length ? scratch : new byte[length];
+        in.get(bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // A count can never exceed the bytes left, since every element takes at least one byte.
+    private static int readCount(ByteBuffer in) throws IOException {
+        int count = readVarint(in);
+        if (count > in.remaining()) {
+            throw new IOException("Element count " + count + " runs past the end of the snapshot");
+        }
+        return count;
+    }
+
+    private static void writeVarint(DataOutputStream data, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            data.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data.writeByte(value);
+    }
+
+    private static void writeVarlong(DataOutputStream data, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            data.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data.writeByte((int) value);
+    }
+
+    private static long readVarlong(ByteBuffer in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varlong in binary snapshot");
+    }
+
+    private static int readVarint(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in binary snapshot");
+    }
+}
@@ -0,0 +1,314 @@
+package application.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lets the first running NexLaunch serve later invocations over a Unix domain socket, so a script or a second
+ * start does not pay for another JVM loading and indexing the launchers.
+ *
+ * A client connects, writes one line (a command, then optionally a space and its argument) and shuts down its
+ * output. The daemon answers "OK" or "ERROR &lt;message&gt;" on the first line, then any result lines, and closes
+ * the connection. Commands: {@code ping}, {@code show} (bring the window to the front), {@code search <text>},
+ * {@code launch <name>} and {@code launch-startup}. Commands that touch the launchers run on the engine's
+ * callback executor, like the engine's own callbacks.
+ *
+ * The socket is ~/.nexlaunch.sock unless the system property nexlaunch.socketPath names another file. It is
+ * only accessible by its owner where the file system supports POSIX permissions.
+ */
+public class LauncherDaemon implements Closeable {
+
+    public static final String PING = "ping";
+    public static final String SHOW = "show";
+    public static final String SEARCH = "search";
+    public static final String LAUNCH = "launch";
+    public static final String LAUNCH_STARTUP = "launch-startup";
+
+    private static final String SOCKET_PATH_PROPERTY = "nexlaunch.socketPath";
+    private static final String OK = "OK";
+    private static final String ERROR = "ERROR";
+    private static final int MAX_REQUEST_BYTES = 8192;
+    private static final int SEARCH_RESULT_LIMIT = 20;
+    private static final int MAX_REPORTED_FAILURES = 20;
+    // How long a client waits for its answer, e.g. while the UI thread is busy or a launch hangs.
+    private static final long REQUEST_TIMEOUT_MILLIS = 60_000;
+
+    private final LauncherEngine engine;
+    private final Path socketPath;
+    private final Runnable showWindow;
+    private final ExecutorService clientPool;
+    private ServerSocketChannel server; // Guarded by this
+    private volatile boolean closed;
+
+    /**
+     * @param showWindow Brings the window to the front, from any thread; null if there is no window.
+     */
+    public LauncherDaemon(LauncherEngine engine, Path socketPath, Runnable showWindow) {
+        this.engine = engine;
+        this.socketPath = socketPath;
+        this.showWindow = showWindow;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.clientPool = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "launcher-daemon-client-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static Path defaultSocketPath() {
+        String configured = System.getProperty(SOCKET_PATH_PROPERTY);
+        return Paths.get(configured != null ? configured : System.getProperty("user.home") + File.separator + ".nexlaunch.sock");
+    }
+
+    /**
+     * Starts answering requests on a background thread.
+     * @return false if another instance is already listening on the socket.
+     * @throws IOException If the socket could not be created.
+     */
+    public synchronized boolean start() throws IOException {
+        if (server != null) {
+            return true;
+        }
+        if (Files.exists(socketPath)) {
+            if (send(socketPath, PING, null) != null) {
+                return false;
+            }
+            Files.deleteIfExists(socketPath); // Left behind by an instance that did not shut down cleanly
+        }
+        ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.bind(UnixDomainSocketAddress.of(socketPath));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        try {
+            Files.setPosixFilePermissions(socketPath, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            // E.g. Windows, where the socket inherits the user directory's ACL
+        }
+        server = channel;
+        Thread acceptor = new Thread(() -> acceptLoop(channel), "launcher-daemon");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        System.out.println("LauncherDaemon: Listening on " + socketPath);
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        clientPool.shutdownNow();
+        if (server == null) {
+            return;
+        }
+        try {
+            server.close();
+            Files.deleteIfExists(socketPath);
+        } catch (IOException e) {
+            System.err.println("LauncherDaemon: Could not remove " + socketPath + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sends one command to the instance listening on {@code socketPath}.
+     * @param argument The command's argument, or null.
+     * @return The result lines, or null if no instance is listening.
+     * @throws IOException If the instance answered with an error (the message includes its details) or the
+     *                     connection broke off.
+     */
+    public static List<String> send(Path socketPath, String command, String argument) throws IOException {
+        SocketChannel channel;
+        try {
+            channel = SocketChannel.open(UnixDomainSocketAddress.of(socketPath));
+        } catch (IOException e) {
+            return null; // No socket file, or nobody accepting on it
+        }
+        try (SocketChannel connected = channel) {
+            String request = argument == null ? command : command + " " + argument.replace('\n', ' ');
+            ByteBuffer buffer = ByteBuffer.wrap((request + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                connected.write(buffer);
+            }
+            connected.shutdownOutput();
+            String response = new String(Channels.newInputStream(connected).readAllBytes(), StandardCharsets.UTF_8);
+            List<String> lines = new ArrayList<>(Arrays.asList(response.split("\n", -1)));
+            if (lines.get(lines.size() - 1).isEmpty()) {
+                lines.remove(lines.size() - 1);
+            }
+            if (lines.isEmpty()) {
+                throw new IOException("The running instance closed the connection without answering.");
+            }
+            String status = lines.remove(0);
+            if (status.equals(OK)) {
+                return lines;
+            }
+            StringBuilder message = new StringBuilder(status.startsWith(ERROR + " ") ? status.substring(ERROR.length() + 1) : status);
+            for (String line : lines) {
+                message.append('\n').append(line);
+            }
+            throw new IOException(message.toString());
+        }
+    }
+
+    // One line per hit: the name, a tab and the URL or path (empty for folders).
+    static String describeHit(LauncherItem item) {
+        String urlOrPath = item.isFolder() ? null : item.getUrlOrPath();
+        return item.getName() + "\t" + (urlOrPath == null ? "" : urlOrPath);
+    }
+
+    private void acceptLoop(ServerSocketChannel channel) {
+        while (!closed) {
+            try {
+                SocketChannel client = channel.accept();
+                clientPool.execute(() -> serve(client));
+            } catch (AsynchronousCloseException e) {
+                return; // Closed
+            } catch (IOException | RejectedExecutionException e) {
+                if (!closed) {
+                    System.err.println("LauncherDaemon: !!! ERROR accepting connections, no longer listening: " + e.getMessage());
+                }
+                return;
+            }
+        }
+    }
+
+    private void serve(SocketChannel client) {
+        try (SocketChannel connected = client) {
+            List<String> response = respond(readRequest(connected));
+            ByteBuffer buffer = ByteBuffer.wrap((String.join("\n", response) + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                connected.write(buffer);
+            }
+        } catch (IOException e) {
+            System.err.println("LauncherDaemon: Could not answer a request: " + e.getMessage());
+        }
+    }
+
+    // The first line the client sent, or everything it sent if it did not end the line.
+    private static String readRequest(SocketChannel channel) throws IOException {
+        ByteArrayOutputStream request = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        while (request.size() < MAX_REQUEST_BYTES && channel.read(buffer) >= 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte next = buffer.get();
+                if (next == '\n') {
+                    return request.toString(StandardCharsets.UTF_8);
+                }
+                request.write(next);
+            }
+            buffer.clear();
+        }
+        return request.toString(StandardCharsets.UTF_8);
+    }
+
+    private List<String> respond(String request) {
+        int space = request.indexOf(' ');
+        String command = (space < 0 ? request : request.substring(0, space)).trim();
+        String argument = space < 0 ? "" : request.substring(space + 1).trim();
+        try {
+            return dispatch(command, argument).get(REQUEST_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return Collections.singletonList(ERROR + " " + cause.getMessage());
+        } catch (TimeoutException e) {
+            return Collections.singletonList(ERROR + " No answer within " + REQUEST_TIMEOUT_MILLIS / 1000 + " s.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Collections.singletonList(ERROR + " Shutting down.");
+        }
+    }
+
+    private CompletableFuture<List<String>> dispatch(String command, String argument) {
+        switch (command) {
+            case PING:
+                return CompletableFuture.completedFuture(Collections.singletonList(OK));
+            case SHOW:
+                if (showWindow == null) {
+                    return CompletableFuture.completedFuture(Collections.singletonList(ERROR + " The running instance has no window."));
+                }
+                showWindow.run();
+                return CompletableFuture.completedFuture(Collections.singletonList(OK));
+            case SEARCH:
+                return onEngine(() -> engine.getSearchService().rank(argument, SEARCH_RESULT_LIMIT, engine::getLaunchers)
+                        .thenApply(hits -> {
+                            List<String> lines = new ArrayList<>();
+                            lines.add(OK);
+                            for (LauncherItem hit : hits) {
+                                lines.add(describeHit(hit));
+                            }
+                            return lines;
+                        }));
+            case LAUNCH:
+                return onEngine(() -> launch(argument));
+            case LAUNCH_STARTUP:
+                return onEngine(() -> {
+                    LaunchPlan plan = engine.isStartupPlanRunning() ? null : engine.startStartupPlan(new LaunchPlan.Listener() {
+                        @Override
+                        public void onStepChanged(LaunchPlan.Step step) {
+                        }
+
+                        @Override
+                        public void onFinished(LaunchSummary summary) {
+                        }
+                    });
+                    String result = plan != null ? "Started " + plan.getSteps().size() + " startup launches."
+                            : engine.isStartupPlanRunning() ? "The startup launches are already running." : "No startup launchers found.";
+                    return CompletableFuture.completedFuture(Arrays.asList(OK, result));
+                });
+            default:
+                return CompletableFuture.completedFuture(Collections.singletonList(ERROR + " Unknown command '" + command + "'."));
+        }
+    }
+
+    // Launches by name and answers once the desktop accepted it, like a launch from the window.
+    private CompletableFuture<List<String>> launch(String name) {
+        LauncherItem item = engine.findByName(name);
+        if (item == null) {
+            return CompletableFuture.completedFuture(Collections.singletonList(ERROR + " No launcher named '" + name + "'."));
+        }
+        CompletableFuture<List<String>> result = new CompletableFuture<>();
+        engine.launchAll(Collections.singletonList(item), true, summary -> {
+            List<String> lines = new ArrayList<>(Arrays.asList(summary.describe(MAX_REPORTED_FAILURES).split("\n")));
+            lines.add(0, summary.hasFailures() ? ERROR + " " + lines.remove(0) : OK);
+            result.complete(lines);
+        });
+        return result;
+    }
+
+    // Runs {@code task} on the engine's callback executor, the only thread that may use the repository.
+    private CompletableFuture<List<String>> onEngine(Supplier<CompletableFuture<List<String>>> task) {
+        return CompletableFuture.supplyAsync(task, engine.getCallbackExecutor()).thenCompose(future -> future);
+    }
+}
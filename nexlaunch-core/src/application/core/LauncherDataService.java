@@ -0,0 +1,691 @@
+package application.core;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+public class LauncherDataService {
+
+    /**
+     * On-disk layout of the snapshot. Loading detects the format from the file content, so switching is transparent.
+     */
+    public enum SnapshotFormat {
+        /** Human-readable JSON (launchers_data.json); also the import/export format. */
+        JSON,
+        /** Compact binary (launchers_data.nxl), read in one go on load; see {@link LauncherBinaryCodec}. */
+        BINARY
+    }
+
+    private static final String DATA_FILE_NAME = "launchers_data.json";
+    private static final String DATA_FILE_PATH = System.getProperty("user.home") + File.separator + DATA_FILE_NAME;
+    private static final String BINARY_DATA_FILE_PATH = System.getProperty("user.home") + File.separator + "launchers_data.nxl";
+    private static final String JOURNAL_FILE_PATH = System.getProperty("user.home") + File.separator + "launchers_data.journal";
+
+    // Once the journal holds this many edits it is folded into the snapshot in the background.
+    private static final int COMPACTION_THRESHOLD = 256;
+    // Writes wait this long for more edits so a burst of changes becomes one write...
+    private static final long SAVE_DEBOUNCE_MILLIS = 250;
+    // ...but are never postponed longer than this while edits keep coming.
+    private static final long SAVE_MAX_DELAY_MILLIS = 2000;
+
+    // Set -Dnexlaunch.compactJson=true to write the data file without indentation.
+    private static final String COMPACT_JSON_PROPERTY = "nexlaunch.compactJson";
+    // Set -Dnexlaunch.snapshotFormat=binary to store snapshots in the binary format.
+    private static final String SNAPSHOT_FORMAT_PROPERTY = "nexlaunch.snapshotFormat";
+    // Number of older data file generations kept for recovery (launchers_data.json.1 .. .N).
+    private static final String GENERATIONS_PROPERTY = "nexlaunch.snapshotGenerations";
+    private static final int DEFAULT_GENERATIONS = 3;
+
+    private static final String FIELD_GENERATION = "generation";
+    private static final String FIELD_LAUNCHERS = "launchers";
+    private static final long JOURNAL_LEGACY_BASE = LauncherJournal.LEGACY_BASE;
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+
+    // The streaming adapter is all that reads and writes launchers, so it is used directly: building a Gson
+    // instance only to look it up again costs a noticeable share of a headless launch's cold start.
+    private static final TypeAdapter<LauncherItem> ITEM_ADAPTER = new LauncherItemTypeAdapter();
+
+    private volatile boolean compactMode;
+    private volatile SnapshotFormat snapshotFormat = formatFromProperty();
+
+    private final LauncherJournal journal = new LauncherJournal(Paths.get(JOURNAL_FILE_PATH), ITEM_ADAPTER);
+    private final LauncherBinaryCodec binaryCodec = new LauncherBinaryCodec();
+    private final AtomicSnapshotFiles jsonSnapshotFiles = new AtomicSnapshotFiles(Paths.get(DATA_FILE_PATH),
+            Integer.getInteger(GENERATIONS_PROPERTY, DEFAULT_GENERATIONS), LauncherDataService::peekGeneration);
+    private final AtomicSnapshotFiles binarySnapshotFiles = new AtomicSnapshotFiles(Paths.get(BINARY_DATA_FILE_PATH),
+            Integer.getInteger(GENERATIONS_PROPERTY, DEFAULT_GENERATIONS), LauncherDataService::peekGeneration);
+    private final Object snapshotLock = new Object(); // Guards reading/writing the snapshot files
+    private long generation; // Newest snapshot generation read or written; guarded by snapshotLock
+
+    // The single writer: every snapshot, journal append and compaction runs on this thread, in submission order.
+    private final ScheduledExecutorService saveExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "launcher-save");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object pendingLock = new Object(); // Guards the pending* fields and scheduledWrite
+    private List<LauncherItem> pendingSnapshot;
+    private final List<String> pendingEntries = new ArrayList<>();
+    private Future<?> scheduledWrite;
+    private long firstPendingAt;
+    private boolean snapshotRequired; // Set when journal entries were lost; only a full snapshot can catch up
+    private volatile Consumer<Exception> saveErrorHandler = e -> { };
+
+    public LauncherDataService() {
+        this(Boolean.getBoolean(COMPACT_JSON_PROPERTY));
+    }
+
+    /**
+     * @param compactMode true to write the data file without pretty-printing (smaller and faster for large trees).
+     */
+    public LauncherDataService(boolean compactMode) {
+        this.compactMode = compactMode;
+    }
+
+    public boolean isCompactMode() {
+        return compactMode;
+    }
+
+    public void setCompactMode(boolean compactMode) {
+        this.compactMode = compactMode;
+    }
+
+    private static SnapshotFormat formatFromProperty() {
+        String value = System.getProperty(SNAPSHOT_FORMAT_PROPERTY, SnapshotFormat.JSON.name());
+        try {
+            return SnapshotFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("LauncherDataService: Unknown snapshot format '" + value + "', using JSON.");
+            return SnapshotFormat.JSON;
+        }
+    }
+
+    public SnapshotFormat getSnapshotFormat() {
+        return snapshotFormat;
+    }
+
+    /**
+     * Chooses the format for snapshots written from now on. Existing files in the other format are still read.
+     */
+    public void setSnapshotFormat(SnapshotFormat snapshotFormat) {
+        this.snapshotFormat = snapshotFormat;
+    }
+
+    /**
+     * Sets the callback for failures of background writes. It is called on the save thread.
+     */
+    public void setSaveErrorHandler(Consumer<Exception> saveErrorHandler) {
+        this.saveErrorHandler = saveErrorHandler != null ? saveErrorHandler : e -> { };
+    }
+
+    /**
+     * Saves a full snapshot of the top-level LauncherItem objects and waits for it to reach the disk.
+     * Prefer {@link #requestSave} from the UI thread.
+     * @param launchers The list of LauncherItem objects to save.
+     * @throws IOException If an I/O error occurs during writing.
+     */
+    public void saveLaunchers(List<LauncherItem> launchers) throws IOException {
+        requestSave(launchers);
+        flush(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues a full snapshot of the top-level LauncherItem objects to be written in the background.
+     * The tree is copied before returning, so the caller may keep editing it. Requests that arrive before the write
+     * starts replace each other, and any journal entries queued so far are dropped since the snapshot contains them.
+     * An empty list is written as an empty snapshot, a new generation like any other, so older ones stay as backups.
+     * @param launchers The list of LauncherItem objects to save.
+     */
+    public void requestSave(List<LauncherItem> launchers) {
+        List<LauncherItem> snapshot = copyTree(launchers);
+        synchronized (pendingLock) {
+            pendingSnapshot = snapshot;
+            pendingEntries.clear();
+            scheduleWrite();
+        }
+    }
+
+    /**
+     * Journals that {@code item} was appended to the folder with id {@code parentId}
+     * ({@link LauncherJournal#TOP_LEVEL_ID} for the top level). Entries address items by {@link LauncherItem#getId() id},
+     * so they stay valid whatever is inserted or removed around the item.
+     * The entry is written in the background together with any other edits made in the same burst.
+     * @throws IOException If the entry could not be formatted; callers should fall back to {@link #requestSave}.
+     */
+    public void recordAdd(long parentId, LauncherItem item) throws IOException {
+        queueEntry(journal.addEntry(parentId, item));
+    }
+
+    /**
+     * Journals the removal of the item with id {@code id}.
+     * @throws IOException If the entry could not be formatted.
+     */
+    public void recordRemove(long id) throws IOException {
+        queueEntry(journal.removeEntry(id));
+    }
+
+    /**
+     * Journals a rename of the item with id {@code id}.
+     * @throws IOException If the entry could not be formatted.
+     */
+    public void recordRename(long id, String newName) throws IOException {
+        queueEntry(journal.renameEntry(id, newName));
+    }
+
+    /**
+     * Journals a startup flag change for the item with id {@code id}.
+     * @throws IOException If the entry could not be formatted.
+     */
+    public void recordStartupChange(long id, boolean isStartupLauncher) throws IOException {
+        queueEntry(journal.startupEntry(id, isStartupLauncher));
+    }
+
+    /**
+     * Journals the launch count and time of the item with id {@code id} after it was launched.
+     * @throws IOException If the entry could not be formatted.
+     */
+    public void recordLaunch(long id, int launchCount, long lastLaunchedAt) throws IOException {
+        queueEntry(journal.launchEntry(id, launchCount, lastLaunchedAt));
+    }
+
+    /**
+     * Journals new startup plan settings for the item with id {@code id}.
+     * @throws IOException If the entry could not be formatted.
+     */
+    public void recordStartupSchedule(long id, int priority, long delayMillis, boolean afterPrevious) throws IOException {
+        queueEntry(journal.scheduleEntry(id, priority, delayMillis, afterPrevious));
+    }
+
+    /**
+     * @return true if writing the journal failed, so edits since the last snapshot are only in memory. Until a
+     *         full snapshot is queued with {@link #requestSave}, the record methods throw and {@link #flush} fails.
+     */
+    public boolean isFullSnapshotRequired() {
+        synchronized (pendingLock) {
+            return snapshotRequired;
+        }
+    }
+
+    /**
+     * Writes everything queued so far and waits for it, e.g. before the application exits. A snapshot whose write
+     * failed earlier is tried again.
+     * @return false if the timeout elapsed before the write finished.
+     * @throws IOException If the write failed, or an earlier journal write failed and no full snapshot was queued since.
+     */
+    public boolean flush(long timeout, TimeUnit unit) throws IOException {
+        Future<?> write;
+        synchronized (pendingLock) {
+            if (scheduledWrite != null) {
+                scheduledWrite.cancel(false); // Run it now instead of after the debounce delay
+                scheduledWrite = null;
+            }
+            write = saveExecutor.submit(() -> {
+                writePending();
+                return null;
+            });
+        }
+        try {
+            write.get(timeout, unit);
+            if (isFullSnapshotRequired()) {
+                throw new IOException("Edits could not be journaled and no full save has been made since.");
+            }
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private void queueEntry(String entry) throws IOException {
+        synchronized (pendingLock) {
+            if (snapshotRequired) {
+                throw new IOException("The journal is missing earlier edits; a full save is needed.");
+            }
+            pendingEntries.add(entry);
+            scheduleWrite();
+        }
+    }
+
+    // Debounces writes: each request pushes the write back, up to SAVE_MAX_DELAY_MILLIS after the first. Caller holds pendingLock.
+    private void scheduleWrite() {
+        long now = System.nanoTime();
+        if (scheduledWrite != null) {
+            boolean overdue = now - firstPendingAt >= TimeUnit.MILLISECONDS.toNanos(SAVE_MAX_DELAY_MILLIS);
+            // A write that has not drained the pending state yet will pick this request up as well.
+            if (overdue || !scheduledWrite.cancel(false)) {
+                return;
+            }
+        } else {
+            firstPendingAt = now;
+        }
+        scheduledWrite = saveExecutor.schedule(this::runScheduledWrite, SAVE_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void runScheduledWrite() {
+        try {
+            writePending();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("LauncherDataService: !!! Background save failed: " + e.getMessage());
+            saveErrorHandler.accept(e);
+        }
+    }
+
+    // Runs on the save thread only. A failed write never loses what it drained: a snapshot goes back to the queue
+    // with the entries made after it (and is retried with the next write or flush), and entries that may be half
+    // appended make a full snapshot required instead, since appending them again could apply them twice.
+    private void writePending() throws IOException {
+        List<LauncherItem> snapshot;
+        List<String> entries;
+        synchronized (pendingLock) {
+            snapshot = pendingSnapshot;
+            pendingSnapshot = null;
+            entries = new ArrayList<>(pendingEntries);
+            pendingEntries.clear();
+            scheduledWrite = null;
+            if (snapshot == null && snapshotRequired) {
+                entries.clear(); // Queued before the journal failed; the required snapshot will contain them
+            }
+        }
+
+        synchronized (snapshotLock) {
+            if (snapshot != null) {
+                try {
+                    writeSnapshotAndResetJournal(snapshot);
+                } catch (IOException | RuntimeException e) {
+                    requeue(snapshot, entries);
+                    throw e;
+                }
+            }
+            if (!entries.isEmpty()) {
+                try {
+                    journal.append(entries);
+                } catch (IOException | RuntimeException e) {
+                    synchronized (pendingLock) {
+                        snapshotRequired = pendingSnapshot == null; // A newer snapshot already contains the entries
+                    }
+                    throw e;
+                }
+                if (journal.getEntryCount() >= COMPACTION_THRESHOLD && journal.beginCompaction()) {
+                    compactLocked();
+                }
+            }
+        }
+    }
+
+    // Caller holds snapshotLock.
+    // An empty list gets a snapshot of its own too: edits journaled after it need a generation to replay against.
+    private void writeSnapshotAndResetJournal(List<LauncherItem> snapshot) throws IOException {
+        // Newer than anything a pending journal refers to, so a crash before clear() cannot replay it twice.
+        long newGeneration = Math.max(generation, journal.getBaseGeneration()) + 1;
+        writeSnapshot(snapshot, newGeneration);
+        journal.clear();
+        journal.setBaseGeneration(newGeneration);
+        System.out.println("LauncherDataService: Launchers data successfully saved to: "
+                + (snapshotFormat == SnapshotFormat.BINARY ? BINARY_DATA_FILE_PATH : DATA_FILE_PATH)
+                + (compactMode && snapshotFormat == SnapshotFormat.JSON ? " (compact)" : ""));
+        synchronized (pendingLock) {
+            snapshotRequired = false; // Requested after any entries that were lost, so it contains them
+        }
+    }
+
+    // Puts a snapshot whose write failed back in front of the queue, unless a newer snapshot replaced it meanwhile.
+    private void requeue(List<LauncherItem> snapshot, List<String> entries) {
+        synchronized (pendingLock) {
+            if (pendingSnapshot == null) {
+                pendingSnapshot = snapshot;
+                pendingEntries.addAll(0, entries);
+            }
+        }
+    }
+
+    /**
+     * Copies a launcher tree so it can be serialized on another thread while the original keeps changing.
+     * Folders whose children were never loaded are copied without loading them.
+     */
+    static List<LauncherItem> copyTree(List<LauncherItem> launchers) {
+        List<LauncherItem> copies = new ArrayList<>(launchers.size());
+        for (LauncherItem item : launchers) {
+            copies.add(item.copy());
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    // Folding works from the files on disk, so the live tree is never touched by the save thread. Caller holds snapshotLock.
+    private void compactLocked() throws IOException {
+        Long compactingBase = journal.readBase(journal.getCompactingPath());
+        if (compactingBase == null) {
+            return; // A full save already superseded this compaction
+        }
+        LauncherSnapshot snapshot = readNewestSnapshot();
+        if (compactingBase != JOURNAL_LEGACY_BASE && compactingBase != snapshot.generation) {
+            // Already part of a newer snapshot (e.g. a crash hit between writing it and deleting this file)
+            journal.finishCompaction();
+            return;
+        }
+        int folded = journal.replay(journal.getCompactingPath(), snapshot.launchers);
+        writeSnapshot(snapshot.launchers, snapshot.generation + 1);
+        journal.finishCompaction();
+        System.out.println("LauncherDataService: Compacted " + folded + " journal entries into snapshot generation " + generation + ".");
+    }
+
+    // Callers hold snapshotLock.
+    private void writeSnapshot(List<LauncherItem> launchers, long newGeneration) throws IOException {
+        if (snapshotFormat == SnapshotFormat.BINARY) {
+            binarySnapshotFiles.writeBytes(out -> binaryCodec.write(out, newGeneration, launchers));
+        } else {
+            jsonSnapshotFiles.write(writer -> writeJson(writer, newGeneration, launchers));
+        }
+        generation = newGeneration;
+    }
+
+    // Writes the {"generation":N,"launchers":[...]} layout, or a bare array when generation is negative. Flushes but does not close.
+    private void writeJson(Writer writer, long snapshotGeneration, List<LauncherItem> launchers) throws IOException {
+        JsonWriter jsonWriter = new JsonWriter(writer);
+        if (!compactMode) {
+            jsonWriter.setIndent("  ");
+        }
+        if (snapshotGeneration >= 0) {
+            jsonWriter.beginObject();
+            jsonWriter.name(FIELD_GENERATION).value(snapshotGeneration);
+            jsonWriter.name(FIELD_LAUNCHERS);
+        }
+        jsonWriter.beginArray();
+        for (LauncherItem item : launchers) {
+            ITEM_ADAPTER.write(jsonWriter, item);
+        }
+        jsonWriter.endArray();
+        if (snapshotGeneration >= 0) {
+            jsonWriter.endObject();
+        }
+        jsonWriter.flush();
+    }
+
+    /**
+     * Exports launchers as a plain JSON array, independent of the snapshot format in use.
+     * @throws IOException If an I/O error occurs during writing.
+     */
+    public void exportJson(List<LauncherItem> launchers, Path file) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), IO_BUFFER_SIZE)) {
+            writeJson(writer, -1, launchers);
+        }
+    }
+
+    /**
+     * Imports launchers from a JSON export or from any NexLaunch data file (JSON or binary).
+     * @throws IOException If an I/O error occurs during reading.
+     * @throws com.google.gson.JsonParseException If the JSON content is malformed.
+     */
+    public List<LauncherItem> importJson(Path file) throws IOException {
+        return readSnapshot(file).launchers;
+    }
+
+    /**
+     * Loads a list of top-level LauncherItem objects from the newest data file (JSON or binary, detected from its content)
+     * and replays any journaled edits over it.
+     * If the data file is unreadable (e.g. torn by a crash), the newest readable older generation is used instead.
+     * Returns an empty list if neither a data file nor a journal exists.
+     * Both pretty-printed and compact files are accepted, as is the older bare-array layout.
+     * When the binary format is loaded, only the top-level items are created; folder children are
+     * decoded the first time {@link LauncherItem#getChildren()} is called on their folder.
+     * @return A list of loaded LauncherItem objects.
+     * @throws IOException If an I/O error occurs during reading (other than file not found).
+     * @throws com.google.gson.JsonParseException If every generation of the data file is malformed.
+     */
+    public List<LauncherItem> loadLaunchers() throws IOException {
+        synchronized (snapshotLock) {
+            LauncherSnapshot snapshot = readNewestSnapshot();
+            List<LauncherItem> loadedItems = snapshot.launchers;
+
+            int replayed = 0;
+            boolean compactionPending = false;
+            Long compactingBase = journal.readBase(journal.getCompactingPath());
+            if (compactingBase != null) {
+                if (compactingBase == JOURNAL_LEGACY_BASE || compactingBase == snapshot.generation) {
+                    replayed += journal.replay(journal.getCompactingPath(), loadedItems);
+                    compactionPending = true;
+                } else {
+                    journal.finishCompaction(); // Stale: its entries are already in the snapshot
+                }
+            }
+
+            long liveJournalBase = compactionPending ? snapshot.generation + 1 : snapshot.generation;
+            Long journalBase = journal.readBase(journal.getJournalPath());
+            if (journalBase != null) {
+                if (journalBase == JOURNAL_LEGACY_BASE || journalBase == liveJournalBase) {
+                    replayed += journal.replay(journal.getJournalPath(), loadedItems);
+                } else {
+                    System.err.println("LauncherDataService: Ignoring journal for snapshot generation " + journalBase
+                            + "; loaded generation is " + snapshot.generation + ".");
+                    Files.deleteIfExists(journal.getJournalPath());
+                }
+            }
+            journal.setBaseGeneration(liveJournalBase);
+
+            if (compactionPending) {
+                // Finish the compaction that was interrupted last time; if it fails, the file is simply replayed again next load.
+                saveExecutor.execute(() -> {
+                    try {
+                        synchronized (snapshotLock) {
+                            compactLocked();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        System.err.println("LauncherDataService: Journal compaction failed: " + e.getMessage());
+                    }
+                });
+            }
+
+            System.out.println("LauncherDataService: Successfully loaded " + loadedItems.size() + " top-level launcher items"
+                    + (replayed > 0 ? " (" + replayed + " journaled edits replayed)." : "."));
+            return loadedItems;
+        }
+    }
+
+    // Reads the newest generation that parses completely. Callers hold snapshotLock.
+    private LauncherSnapshot readNewestSnapshot() throws IOException {
+        // Current files and backups of both formats; the newest generation is tried first.
+        List<Path> candidates = new ArrayList<>(jsonSnapshotFiles.candidatesNewestFirst());
+        candidates.addAll(binarySnapshotFiles.candidatesNewestFirst());
+        candidates = jsonSnapshotFiles.sortNewestFirst(candidates);
+        if (candidates.isEmpty()) {
+            System.out.println("LauncherDataService: Data file not found at: " + DATA_FILE_PATH);
+            generation = Math.max(generation, 0);
+            return new LauncherSnapshot(0, new ArrayList<>()); // Return empty list if file doesn't exist
+        }
+
+        Exception firstFailure = null;
+        for (Path candidate : candidates) {
+            try {
+                LauncherSnapshot snapshot = readSnapshot(candidate);
+                if (firstFailure != null) {
+                    System.err.println("LauncherDataService: Recovered launchers from older generation " + candidate.getFileName()
+                            + " (generation " + snapshot.generation + ").");
+                }
+                generation = Math.max(generation, snapshot.generation);
+                return snapshot;
+            } catch (IOException | JsonParseException e) {
+                System.err.println("LauncherDataService: Could not read " + candidate.getFileName() + ": " + e.getMessage());
+                if (firstFailure == null) {
+                    firstFailure = e;
+                }
+            }
+        }
+
+        if (firstFailure instanceof IOException) {
+            throw (IOException) firstFailure;
+        }
+        throw (JsonParseException) firstFailure;
+    }
+
+    // Reads only as far as the generation: the binary header, or the first field of the JSON object.
+    private static long peekGeneration(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(LauncherBinaryCodec.HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Fill the header, or stop at the end of a short file
+            }
+            header.flip();
+            if (LauncherBinaryCodec.hasMagic(header)) {
+                return LauncherBinaryCodec.peekGeneration(header);
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+        try (JsonReader jsonReader = new JsonReader(new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8))) {
+            if (jsonReader.peek() != JsonToken.BEGIN_OBJECT) {
+                return 0; // Layout written before generations existed
+            }
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                if (FIELD_GENERATION.equals(jsonReader.nextName())) {
+                    return jsonReader.nextLong();
+                }
+                jsonReader.skipValue();
+            }
+            return 0;
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private LauncherSnapshot readSnapshot(Path file) throws IOException {
+        if (Files.size(file) == 0) {
+            throw new JsonSyntaxException("Data file is empty");
+        }
+        boolean binary;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(LauncherBinaryCodec.MAGIC.length);
+            channel.read(magic, 0);
+            magic.flip();
+            binary = LauncherBinaryCodec.hasMagic(magic);
+        }
+        if (binary) {
+            // One plain read into the heap, which the codec decodes (and later decodes folder blocks from) in place.
+            // Nothing keeps the file open or mapped, so it can be rotated as soon as this returns.
+            return binaryCodec.read(Files.readAllBytes(file));
+        }
+        return readJsonSnapshot(file);
+    }
+
+    private LauncherSnapshot readJsonSnapshot(Path file) throws IOException {
+        try (JsonReader jsonReader = new JsonReader(new InputStreamReader(
+                new BufferedInputStream(Files.newInputStream(file), IO_BUFFER_SIZE), StandardCharsets.UTF_8))) {
+            long snapshotGeneration = 0;
+            List<LauncherItem> launchers = null;
+            try {
+                if (jsonReader.peek() == JsonToken.BEGIN_ARRAY) {
+                    launchers = readLauncherArray(jsonReader); // Layout written before generations existed
+                } else {
+                    jsonReader.beginObject();
+                    while (jsonReader.hasNext()) {
+                        String field = jsonReader.nextName();
+                        if (FIELD_GENERATION.equals(field)) {
+                            snapshotGeneration = jsonReader.nextLong();
+                        } else if (FIELD_LAUNCHERS.equals(field)) {
+                            launchers = readLauncherArray(jsonReader);
+                        } else {
+                            jsonReader.skipValue();
+                        }
+                    }
+                    jsonReader.endObject();
+                }
+                if (jsonReader.peek() != JsonToken.END_DOCUMENT) {
+                    throw new JsonSyntaxException("Unexpected content after launcher data");
+                }
+            } catch (IllegalStateException | NumberFormatException e) {
+                // JsonReader reports unexpected tokens this way; surface it like Gson.fromJson would.
+                throw new JsonSyntaxException(e);
+            }
+            if (launchers == null) {
+                throw new JsonSyntaxException("Data file has no launcher list");
+            }
+            return new LauncherSnapshot(snapshotGeneration, launchers);
+        }
+    }
+
+    private List<LauncherItem> readLauncherArray(JsonReader jsonReader) throws IOException {
+        List<LauncherItem> loadedItems = new ArrayList<>();
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return loadedItems; // Ensure not null even if the list is null
+        }
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            LauncherItem item = ITEM_ADAPTER.read(jsonReader);
+            if (item != null) {
+                loadedItems.add(item);
+            }
+        }
+        jsonReader.endArray();
+        LauncherStrings.compact(loadedItems);
+        return loadedItems;
+    }
+
+    /**
+     * Deletes the data file, its older generations and the journal if they exist, discarding queued writes.
+     * Older generations must go too, or the next load would fall back to one of them.
+     */
+    public void deleteDataFile() {
+        synchronized (pendingLock) {
+            pendingSnapshot = null;
+            pendingEntries.clear();
+        }
+        synchronized (snapshotLock) {
+            deleteDataFileLocked();
+        }
+    }
+
+    private void deleteDataFileLocked() {
+        try {
+            journal.clear();
+            journal.setBaseGeneration(0); // What the next load starts from when no snapshot exists
+            boolean deletedJson = jsonSnapshotFiles.deleteAll();
+            boolean deletedBinary = binarySnapshotFiles.deleteAll();
+            if (deletedJson || deletedBinary) {
+                System.out.println("LauncherDataService: Data file deleted.");
+            } else {
+                System.out.println("LauncherDataService: No data file to delete.");
+            }
+        } catch (IOException e) {
+            System.err.println("LauncherDataService: Failed to delete data file: " + DATA_FILE_PATH + " (" + e.getMessage() + ")");
+        }
+    }
+}
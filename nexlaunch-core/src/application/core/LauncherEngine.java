@@ -0,0 +1,380 @@
+package application.core;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Everything NexLaunch does with launchers, without a user interface: the {@link LauncherRepository}
+ * and what follows its changes (persistence, the search index, the startup set), launching single
+ * items, folders and the startup plan, and counting launches for search ranking.
+ *
+ * The JavaFX Controller is a view over one engine; a CLI or a benchmark can use one without starting
+ * JavaFX. Results of background work (launch outcomes, path checks, search batches) are handed to the
+ * {@code callbackExecutor}, which must run them one at a time on the thread that uses the repository:
+ * {@code Platform::runLater} in the app, a single-threaded executor elsewhere.
+ */
+public class LauncherEngine {
+
+    private final LauncherRepository repository = new LauncherRepository();
+    private final List<LauncherItem> startupLaunchers = new ArrayList<>(); // Top-level startup launchers, in list order
+    private final List<LauncherItem> startupLaunchersView = Collections.unmodifiableList(startupLaunchers);
+    private final LauncherDataService dataService;
+    private final LaunchScheduler launchScheduler;
+    private final PathStatusService pathStatusService;
+    private final LauncherSearchService searchService;
+    private final Executor callbackExecutor;
+    private volatile LaunchPlan startupPlan;
+
+    public LauncherEngine(Executor callbackExecutor) {
+        this(new LauncherDataService(), new LaunchScheduler(), callbackExecutor);
+    }
+
+    public LauncherEngine(LauncherDataService dataService, LaunchScheduler launchScheduler, Executor callbackExecutor) {
+        this.dataService = dataService;
+        this.launchScheduler = launchScheduler;
+        this.callbackExecutor = callbackExecutor;
+        this.pathStatusService = new PathStatusService(callbackExecutor);
+        this.searchService = new LauncherSearchService(callbackExecutor);
+        // Views added later (e.g. the app's trees) see the startup set already updated.
+        repository.addListener(searchService::launcherChanged);
+        repository.addListener(this::journalLauncherChange);
+        repository.addListener(this::updateStartupLaunchers);
+    }
+
+    public LauncherRepository getRepository() {
+        return repository;
+    }
+
+    public LauncherDataService getDataService() {
+        return dataService;
+    }
+
+    public LaunchScheduler getLaunchScheduler() {
+        return launchScheduler;
+    }
+
+    public PathStatusService getPathStatusService() {
+        return pathStatusService;
+    }
+
+    public LauncherSearchService getSearchService() {
+        return searchService;
+    }
+
+    // Where background results are delivered; also where other threads hand work that touches the repository.
+    public Executor getCallbackExecutor() {
+        return callbackExecutor;
+    }
+
+    /**
+     * @return A live, read-only view of the top-level launchers.
+     */
+    public List<LauncherItem> getLaunchers() {
+        return repository.getTopLevel();
+    }
+
+    /**
+     * @return A live, read-only view of the top-level startup launchers, in list order.
+     */
+    public List<LauncherItem> getStartupLaunchers() {
+        return startupLaunchersView;
+    }
+
+    /**
+     * Finds a launcher or folder by name, ignoring case. Each list is searched before the folders in it, so a
+     * top-level launcher wins over a same-named one inside a folder.
+     * @return The item, or null if there is none with that name.
+     */
+    public LauncherItem findByName(String name) {
+        return findByName(repository.getTopLevel(), name.toLowerCase(Locale.ROOT));
+    }
+
+    private static LauncherItem findByName(List<LauncherItem> items, String lowerCaseName) {
+        for (LauncherItem item : items) {
+            if (item.getName() != null && item.getName().toLowerCase(Locale.ROOT).equals(lowerCaseName)) {
+                return item;
+            }
+        }
+        for (LauncherItem item : items) {
+            if (item.isFolder() && item.getChildren() != null) {
+                LauncherItem found = findByName(item.getChildren(), lowerCaseName);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Replaces the launchers with the ones in the data file. If they cannot be read, the repository is
+     * left empty so the caller can carry on, and the error is rethrown.
+     * @throws IOException If the data file could not be read.
+     * @throws com.google.gson.JsonParseException If it is not valid launcher data.
+     */
+    public void load() throws IOException {
+        List<LauncherItem> loadedItems = Collections.emptyList();
+        try {
+            loadedItems = dataService.loadLaunchers();
+        } finally {
+            repository.replaceAll(loadedItems); // Also populates the startup set, see updateStartupLaunchers
+        }
+    }
+
+    /**
+     * Queues a full snapshot of the launchers; it is written on the data service's save thread.
+     */
+    public void save() {
+        // Copies the tree and returns at once.
+        dataService.requestSave(repository.getTopLevel());
+    }
+
+    /**
+     * Waits for queued saves to reach the disk, e.g. before exiting. If edits could not be journaled, a full
+     * snapshot is queued first so they are not lost.
+     * @return false if they did not finish within the timeout or failed.
+     */
+    public boolean flush(long timeoutMillis) {
+        if (dataService.isFullSnapshotRequired()) {
+            save();
+        }
+        try {
+            return dataService.flush(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (IOException e) {
+            System.err.println("LauncherEngine: !!! ERROR writing launchers data: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Launches a single item on the launch pool and counts the launch once the desktop accepted it. A target
+     * the path cache knows to be missing is checked again first and only launched if it has come back.
+     * @return Completes, on the callback executor, when the desktop accepted the item, or exceptionally with
+     *         the cause: FileNotFoundException for a missing target, TimeoutException if the desktop did not
+     *         answer in time, otherwise the desktop's error.
+     */
+    public CompletableFuture<Void> launch(LauncherItem item) {
+        String pathOrUrl = item.getUrlOrPath();
+        if (pathOrUrl == null || pathOrUrl.trim().isEmpty()) {
+            return CompletableFuture.failedFuture(new IOException("Path or URL is empty."));
+        }
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        if (pathStatusService.statusOf(pathOrUrl) == PathStatusService.Status.MISSING) {
+            pathStatusService.check(pathOrUrl).thenAccept(status -> callbackExecutor.execute(() -> {
+                if (status == PathStatusService.Status.MISSING) {
+                    result.completeExceptionally(new FileNotFoundException("File or application not found at: " + pathOrUrl));
+                } else {
+                    submitLaunch(item, pathOrUrl, result);
+                }
+            }));
+        } else {
+            submitLaunch(item, pathOrUrl, result);
+        }
+        return result;
+    }
+
+    private void submitLaunch(LauncherItem item, String pathOrUrl, CompletableFuture<Void> result) {
+        launchScheduler.submit(item).whenComplete((ignored, error) -> callbackExecutor.execute(() -> {
+            if (error == null) {
+                pathStatusService.report(pathOrUrl, PathStatusService.Status.EXISTS);
+                recordLaunch(item);
+                result.complete(null);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof FileNotFoundException) {
+                pathStatusService.report(pathOrUrl, PathStatusService.Status.MISSING);
+            }
+            result.completeExceptionally(cause);
+        }));
+    }
+
+    /**
+     * Launches {@code items} (folders with everything inside them) as one batch.
+     * @param countLaunches Whether the launches were asked for by the user and should count towards search ranking.
+     * @param onComplete    Gets the summary on the callback executor, after the launches were counted.
+     */
+    public void launchAll(List<LauncherItem> items, boolean countLaunches, Consumer<LaunchSummary> onComplete) {
+        launchScheduler.launchAll(items, summary -> callbackExecutor.execute(() -> {
+            if (countLaunches) {
+                for (LauncherItem item : summary.getLaunched()) {
+                    recordLaunch(item);
+                }
+            }
+            onComplete.accept(summary);
+        }));
+    }
+
+    /**
+     * Starts the startup plan for the current startup launchers, unless there are none.
+     * @return The running plan, or null if there was nothing to launch.
+     */
+    public LaunchPlan startStartupPlan(LaunchPlan.Listener listener) {
+        if (startupLaunchers.isEmpty()) {
+            return null;
+        }
+        LaunchPlan plan = new LaunchPlan(startupLaunchers);
+        startupPlan = plan;
+        plan.start(launchScheduler, listener);
+        return plan;
+    }
+
+    // The plan started last, or null.
+    public LaunchPlan getStartupPlan() {
+        return startupPlan;
+    }
+
+    /**
+     * @return true if a startup plan was running and is now cancelled.
+     */
+    public boolean cancelStartupPlan() {
+        LaunchPlan plan = startupPlan;
+        if (plan != null && !plan.isFinished()) {
+            plan.cancel();
+            return true;
+        }
+        return false;
+    }
+
+    public boolean isStartupPlanRunning() {
+        LaunchPlan plan = startupPlan;
+        return plan != null && !plan.isFinished() && !plan.isCancelled();
+    }
+
+    /**
+     * Text to show next to a startup launcher: its progress in the running startup plan, or its plan
+     * settings once the plan is done (null if there is nothing to show).
+     */
+    public String startupStatusOf(LauncherItem item) {
+        LaunchPlan plan = startupPlan;
+        if (plan != null) {
+            String progress = plan.describeProgress(item);
+            if (progress != null) {
+                return progress;
+            }
+        }
+        return item.isStartupLauncher() ? LaunchPlan.describeSchedule(item) : null;
+    }
+
+    /**
+     * Counts a user-initiated launch of {@code item} so that search can rank frequently and recently used launchers first.
+     */
+    public void recordLaunch(LauncherItem item) {
+        if (repository.contains(item)) { // E.g. deleted while it was launching
+            repository.recordLaunch(item, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Keeps the startup set (the top-level startup launchers, in list order) in step with the repository.
+     */
+    private void updateStartupLaunchers(LauncherRepository.Change change) {
+        LauncherItem item = change.getItem();
+        switch (change.getType()) {
+            case RELOADED:
+                startupLaunchers.clear();
+                for (LauncherItem topLevelItem : repository.getTopLevel()) {
+                    if (topLevelItem.isStartupLauncher()) {
+                        startupLaunchers.add(topLevelItem);
+                    }
+                }
+                break;
+            case ADDED:
+            case STARTUP_CHANGED:
+                if (change.getParent() != null) {
+                    break; // Only top-level launchers run at startup
+                }
+                startupLaunchers.removeIf(startupItem -> startupItem == item);
+                if (item.isStartupLauncher()) {
+                    startupLaunchers.add(startupIndexOf(item), item);
+                }
+                break;
+            case REMOVED:
+                if (change.getParent() == null) {
+                    startupLaunchers.removeIf(startupItem -> startupItem == item);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Where the top-level {@code item} goes in the startup set to keep list order.
+    private int startupIndexOf(LauncherItem item) {
+        int startupIndex = 0;
+        for (LauncherItem topLevelItem : repository.getTopLevel()) {
+            if (topLevelItem == item) {
+                break;
+            }
+            if (topLevelItem.isStartupLauncher()) {
+                startupIndex++;
+            }
+        }
+        return startupIndex;
+    }
+
+    // Persists each repository change as a journal entry.
+    private void journalLauncherChange(LauncherRepository.Change change) {
+        LauncherItem item = change.getItem();
+        long id = change.getItemId();
+        switch (change.getType()) {
+            case ADDED:
+                LauncherItem parent = change.getParent();
+                long parentId = parent == null ? LauncherJournal.TOP_LEVEL_ID : parent.getId();
+                journalChange(() -> dataService.recordAdd(parentId, item));
+                break;
+            case REMOVED:
+                journalChange(() -> dataService.recordRemove(id));
+                break;
+            case RENAMED:
+                String newName = item.getName();
+                journalChange(() -> dataService.recordRename(id, newName));
+                break;
+            case STARTUP_CHANGED:
+                boolean isStartupLauncher = item.isStartupLauncher();
+                journalChange(() -> dataService.recordStartupChange(id, isStartupLauncher));
+                break;
+            case SCHEDULE_CHANGED:
+                int priority = item.getStartupPriority();
+                long delayMillis = item.getStartupDelayMillis();
+                boolean afterPrevious = item.isStartupAfterPrevious();
+                journalChange(() -> dataService.recordStartupSchedule(id, priority, delayMillis, afterPrevious));
+                break;
+            case LAUNCHED:
+                int launchCount = item.getLaunchCount();
+                long lastLaunchedAt = item.getLastLaunchedAt();
+                journalChange(() -> dataService.recordLaunch(id, launchCount, lastLaunchedAt));
+                break;
+            default:
+                break; // RELOADED: the launchers just came from disk
+        }
+    }
+
+    @FunctionalInterface
+    private interface JournalEntry {
+        void record() throws IOException;
+    }
+
+    /**
+     * Persists a single edit as a journal entry instead of rewriting the whole data file.
+     * Falls back to a full save when the journal cannot be written.
+     */
+    private void journalChange(JournalEntry entry) {
+        try {
+            entry.record();
+        } catch (IOException e) {
+            System.err.println("LauncherEngine: Could not journal change, saving full snapshot instead: " + e.getMessage());
+            save();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package application.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Finds launchers and their parent folders by id in constant time, instead of searching the tree by name.
+ *
+ * The index mirrors the master list: {@link #rebuild} after loading, then {@link #add} and {@link #remove}
+ * for every edit. Folders whose children are still undecoded (see {@link LauncherItem#setPendingChildren})
+ * are not opened to index them. Decoding one, on whatever thread, queues it (see
+ * {@link LauncherItem#whenChildrenLoaded}), and the first lookup that misses afterwards indexes the children
+ * of the queued folders, so a miss costs no more than the folders decoded since the last one. Not
+ * thread-safe; the repository only uses it on the FX thread, and journal replay builds its own.
+ */
+public class LauncherIndex {
+
+    private final Map<Long, LauncherItem> itemsById = new HashMap<>();
+    private final Map<Long, LauncherItem> parentsById = new HashMap<>(); // Null value for top-level items
+    // Indexed, but their children are not yet
+    private final Set<LauncherItem> pendingFolders = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Queue<LauncherItem> decodedFolders = new ConcurrentLinkedQueue<>(); // Pending folders decoded since the last miss
+
+    public LauncherIndex() {
+        // Empty until rebuild or add
+    }
+
+    /**
+     * Indexes {@code topLevel} from scratch, e.g. after the launchers were loaded.
+     */
+    public void rebuild(List<LauncherItem> topLevel) {
+        itemsById.clear();
+        parentsById.clear();
+        pendingFolders.clear();
+        decodedFolders.clear();
+        for (LauncherItem item : topLevel) {
+            add(item, null);
+        }
+    }
+
+    /**
+     * Indexes {@code item} and everything loaded below it as a child of {@code parent} (null for the top level).
+     */
+    public void add(LauncherItem item, LauncherItem parent) {
+        LauncherItem existing = itemsById.get(item.getId());
+        if (existing != null && existing != item) {
+            // Two items with one id, e.g. from a hand-edited data file; the newcomer gets a fresh id.
+            System.err.println("LauncherIndex: Duplicate id " + item.getId() + " for '" + item.getName() + "', assigning a new one.");
+            item.assignNewId();
+        }
+        itemsById.put(item.getId(), item);
+        parentsById.put(item.getId(), parent);
+        if (!item.isFolder()) {
+            return;
+        }
+        // Pending first: a thread decoding the folder right after registering must find it there.
+        pendingFolders.add(item);
+        if (!item.whenChildrenLoaded(() -> decodedFolders.add(item))) {
+            pendingFolders.remove(item);
+            if (item.getChildren() != null) {
+                for (LauncherItem child : item.getChildren()) {
+                    add(child, item);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops {@code item} and everything below it that was indexed.
+     */
+    public void remove(LauncherItem item) {
+        if (itemsById.get(item.getId()) != item) {
+            return;
+        }
+        itemsById.remove(item.getId());
+        parentsById.remove(item.getId());
+        if (!item.isFolder() || pendingFolders.remove(item)) {
+            return; // A pending folder's children were never indexed
+        }
+        if (item.getChildren() != null) {
+            for (LauncherItem child : item.getChildren()) {
+                remove(child);
+            }
+        }
+    }
+
+    /**
+     * @return true if {@code item} itself (not just an item with its id) is indexed.
+     */
+    public boolean contains(LauncherItem item) {
+        if (itemsById.get(item.getId()) == item) {
+            return true;
+        }
+        return indexDecodedFolders() && itemsById.get(item.getId()) == item;
+    }
+
+    /**
+     * Looks an item up by id, decoding pending folders until it turns up. Unlike the other lookups this may
+     * open the whole tree, so it is meant for journal replay, where the id is known to exist.
+     * @return The item, or null if no item in the tree has {@code id}.
+     */
+    public LauncherItem find(long id) {
+        LauncherItem item = itemsById.get(id);
+        while (item == null && (indexDecodedFolders() || decodeOnePendingFolder())) {
+            item = itemsById.get(id);
+        }
+        return item;
+    }
+
+    /**
+     * @return The parent folder of {@code item}, or null if it is a top-level item or not indexed.
+     */
+    public LauncherItem parentOf(LauncherItem item) {
+        return contains(item) ? parentsById.get(item.getId()) : null;
+    }
+
+    /**
+     * @return The index path of {@code item} from {@code topLevel}, or null if it is not in the tree.
+     *         Costs one sibling scan per level rather than a walk of the whole tree.
+     */
+    public int[] pathOf(LauncherItem item, List<LauncherItem> topLevel) {
+        if (!contains(item)) {
+            return null;
+        }
+        List<Integer> reversed = new ArrayList<>();
+        for (LauncherItem current = item; current != null; current = parentsById.get(current.getId())) {
+            LauncherItem parent = parentsById.get(current.getId());
+            int index = indexOfIdentity(parent == null ? topLevel : parent.getChildren(), current);
+            if (index < 0) {
+                return null;
+            }
+            reversed.add(index);
+        }
+        int[] path = new int[reversed.size()];
+        for (int i = 0; i < path.length; i++) {
+            path[i] = reversed.get(path.length - 1 - i);
+        }
+        return path;
+    }
+
+    public int size() {
+        return itemsById.size();
+    }
+
+    // Indexes the children of the folders decoded since the last call. Returns true if there were any.
+    private boolean indexDecodedFolders() {
+        boolean indexed = false;
+        LauncherItem folder;
+        while ((folder = decodedFolders.poll()) != null) {
+            // Skips folders removed (or re-indexed by a rebuild) in the meantime
+            if (pendingFolders.remove(folder) && folder.getChildren() != null) {
+                for (LauncherItem child : folder.getChildren()) {
+                    add(child, folder); // May register further pending folders
+                }
+                indexed = true;
+            }
+        }
+        return indexed;
+    }
+
+    // Decodes and indexes one pending folder. Returns false if none are left.
+    private boolean decodeOnePendingFolder() {
+        Iterator<LauncherItem> pending = pendingFolders.iterator();
+        if (!pending.hasNext()) {
+            return false;
+        }
+        LauncherItem folder = pending.next();
+        pending.remove(); // No longer pending, so indexDecodedFolders skips it when its callback queues it
+        if (folder.getChildren() != null) {
+            for (LauncherItem child : folder.getChildren()) {
+                add(child, folder);
+            }
+        }
+        return true;
+    }
+
+    // LauncherItem.equals compares names and paths, so List.indexOf could find a look-alike sibling.
+    private static int indexOfIdentity(List<LauncherItem> items, LauncherItem item) {
+        if (items == null) {
+            return -1;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) == item) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
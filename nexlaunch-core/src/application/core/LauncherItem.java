@@ -0,0 +1,424 @@
+package application.core;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects; // NEW: For Objects.equals and Objects.hash
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LauncherItem implements Serializable {
+    private static final long serialVersionUID = 1L; // For serialization version control
+    // Highest id handed out or loaded so far in this process; new items are numbered after it.
+    private static final AtomicLong LAST_ID = new AtomicLong();
+
+    private static final byte FLAG_FOLDER = 1;
+    private static final byte FLAG_STARTUP = 2; // NEW: Flag for startup launchers
+
+    private long id; // Persistent and unique within the launcher tree, see LauncherIndex
+    private String name;
+    // Null if it's a folder. In compact memory mode only the part after urlPrefix (see LauncherStrings).
+    private String urlOrPath;
+    private String urlPrefix; // Shared with every launcher of the same site or directory; null if not split
+    private byte flags; // FLAG_FOLDER, FLAG_STARTUP
+    private List<LauncherItem> children; // Only applicable if isFolder is true
+    private Extras extras; // Null while the launch stats and startup plan settings are at their defaults
+    // Set while a folder's children are still encoded in the loaded snapshot; cleared when they are first accessed.
+    private transient volatile ChildLoader pendingChildren;
+    private transient Runnable childrenLoadedCallback; // Guarded by this; run once pendingChildren are created
+
+    /**
+     * Launch stats and startup plan settings. Most launchers are never launched from NexLaunch and are not
+     * startup launchers, so these live in a separate object that only such launchers have.
+     */
+    private static final class Extras implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        int launchCount; // Times launched from NexLaunch, used to rank search results
+        long lastLaunchedAt; // Epoch millis of the last launch, 0 if never launched
+        // Startup plan settings, only used for startup launchers (see LaunchPlan)
+        int startupPriority; // Higher launches earlier; equal priorities keep list order
+        long startupDelayMillis; // Earliest launch time, counted from the start of the plan
+        boolean startupAfterPrevious; // Wait until every earlier launch in the plan has settled
+
+        boolean isDefault() {
+            return launchCount == 0 && lastLaunchedAt == 0 && startupPriority == 0 && startupDelayMillis == 0 && !startupAfterPrevious;
+        }
+    }
+
+    /**
+     * Supplies a folder's children on demand, e.g. by decoding them from a snapshot block.
+     * Implementations must be thread-safe and return new, independent items on every call.
+     */
+    public interface ChildLoader {
+        List<LauncherItem> load();
+
+        int size();
+    }
+
+    // Constructor for folders
+    public LauncherItem(String name) {
+        this.id = LAST_ID.incrementAndGet();
+        this.name = name;
+        this.urlOrPath = null; // Folders don't have a URL or path
+        this.flags = FLAG_FOLDER; // Folders themselves are not startup launchers (items inside are)
+        this.children = new ArrayList<>();
+    }
+
+    // Constructor for URL/Shortcut items
+    public LauncherItem(String name, String urlOrPath) {
+        this.id = LAST_ID.incrementAndGet();
+        this.name = name;
+        storeUrlOrPath(urlOrPath);
+        this.flags = 0; // Default to not a startup launcher
+        this.children = null; // Non-folder items don't have children
+    }
+
+    // NEW: Constructor to explicitly set isStartupLauncher
+    public LauncherItem(String name, String urlOrPath, boolean isStartupLauncher) {
+        this.id = LAST_ID.incrementAndGet();
+        this.name = name;
+        storeUrlOrPath(urlOrPath);
+        boolean isFolder = (urlOrPath == null); // If urlOrPath is null, it's a folder
+        this.flags = (byte) ((isFolder ? FLAG_FOLDER : 0) | (isStartupLauncher ? FLAG_STARTUP : 0));
+        this.children = isFolder ? new ArrayList<>() : null;
+    }
+
+    /**
+     * Recreates a persisted item with its id, or with a new id if it was saved before items had ids ({@code id} 0).
+     */
+    public static LauncherItem restore(long id, String name, String urlOrPath, boolean isFolder, boolean isStartupLauncher) {
+        if (id <= 0) {
+            id = LAST_ID.incrementAndGet();
+        } else {
+            reserveIdsUpTo(id);
+        }
+        return new LauncherItem(id, name, isFolder ? null : urlOrPath, isFolder, isStartupLauncher);
+    }
+
+    // For copies and restored items, which do not use up a new id
+    private LauncherItem(long id, String name, String urlOrPath, boolean isFolder, boolean isStartupLauncher) {
+        this.id = id;
+        this.name = name;
+        storeUrlOrPath(urlOrPath);
+        this.flags = (byte) ((isFolder ? FLAG_FOLDER : 0) | (isStartupLauncher ? FLAG_STARTUP : 0));
+        this.children = isFolder ? new ArrayList<>() : null;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    // Gives this item a fresh id, e.g. because another item in the tree already has its id.
+    public void assignNewId() {
+        this.id = LAST_ID.incrementAndGet();
+    }
+
+    /**
+     * Makes sure new items get ids above {@code id}, e.g. the highest id of a snapshot whose folders are not decoded yet.
+     */
+    public static void reserveIdsUpTo(long id) {
+        LAST_ID.accumulateAndGet(id, Math::max);
+    }
+
+    /**
+     * Hands out {@code count} consecutive ids at once, e.g. for items that are numbered by their position in a file.
+     * @return The first of them.
+     */
+    public static long reserveIds(long count) {
+        return LAST_ID.getAndAdd(count) + 1;
+    }
+
+    // The highest id handed out or loaded so far, which snapshots record for {@link #reserveIdsUpTo}.
+    public static long getLastId() {
+        return LAST_ID.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    // In compact memory mode this joins the shared prefix and the rest, so it allocates; callers on hot paths keep the result.
+    public String getUrlOrPath() {
+        return urlPrefix == null ? urlOrPath : urlPrefix.concat(urlOrPath);
+    }
+
+    public void setUrlOrPath(String urlOrPath) {
+        storeUrlOrPath(urlOrPath);
+    }
+
+    private void storeUrlOrPath(String value) {
+        String prefix = LauncherStrings.isCompact() ? LauncherStrings.sharedPrefixOf(value) : null;
+        this.urlPrefix = prefix;
+        this.urlOrPath = prefix == null ? value : value.substring(prefix.length());
+    }
+
+    public boolean isFolder() {
+        return (flags & FLAG_FOLDER) != 0;
+    }
+
+    // For folders, adds a child. For non-folders, this does nothing or throws error.
+    public void addChild(LauncherItem child) {
+        if (isFolder() && getChildren() != null) {
+            this.children.add(child);
+        } else {
+            System.err.println("Cannot add child to a non-folder LauncherItem.");
+        }
+    }
+
+    // For folders, removes a child.
+    public void removeChild(LauncherItem child) {
+        if (isFolder() && getChildren() != null) {
+            // By identity: equals compares names and paths, so remove(Object) could take a look-alike sibling.
+            for (int i = 0; i < children.size(); i++) {
+                if (children.get(i) == child) {
+                    children.remove(i);
+                    break;
+                }
+            }
+        } else {
+            System.err.println("Cannot remove child from a non-folder LauncherItem.");
+        }
+    }
+
+    public List<LauncherItem> getChildren() {
+        if (pendingChildren != null) {
+            loadPendingChildren();
+        }
+        return children; // Returns null if not a folder, handle in calling code
+    }
+
+    /**
+     * Replaces the children of a folder with {@code newChildren}, in a list sized to fit them exactly.
+     */
+    public void setChildren(List<LauncherItem> newChildren) {
+        if (!isFolder()) {
+            throw new IllegalStateException("Only folders can have children.");
+        }
+        this.pendingChildren = null;
+        this.children = new ArrayList<>(newChildren);
+        runChildrenLoadedCallback();
+    }
+
+    public int getLaunchCount() {
+        return extras == null ? 0 : extras.launchCount;
+    }
+
+    public long getLastLaunchedAt() {
+        return extras == null ? 0 : extras.lastLaunchedAt;
+    }
+
+    public void setLaunchStats(int launchCount, long lastLaunchedAt) {
+        if (extras == null && launchCount == 0 && lastLaunchedAt == 0) {
+            return;
+        }
+        Extras e = extras();
+        e.launchCount = launchCount;
+        e.lastLaunchedAt = lastLaunchedAt;
+        dropDefaultExtras();
+    }
+
+    // Counts one launch at the given time (epoch millis).
+    public void recordLaunch(long launchedAt) {
+        Extras e = extras();
+        if (e.launchCount < Integer.MAX_VALUE) {
+            e.launchCount++;
+        }
+        e.lastLaunchedAt = launchedAt;
+    }
+
+    public int getStartupPriority() {
+        return extras == null ? 0 : extras.startupPriority;
+    }
+
+    public long getStartupDelayMillis() {
+        return extras == null ? 0 : extras.startupDelayMillis;
+    }
+
+    public boolean isStartupAfterPrevious() {
+        return extras != null && extras.startupAfterPrevious;
+    }
+
+    public void setStartupSchedule(int priority, long delayMillis, boolean afterPrevious) {
+        if (extras == null && priority == 0 && delayMillis <= 0 && !afterPrevious) {
+            return;
+        }
+        Extras e = extras();
+        e.startupPriority = priority;
+        e.startupDelayMillis = Math.max(0, delayMillis);
+        e.startupAfterPrevious = afterPrevious;
+        dropDefaultExtras();
+    }
+
+    // True if any startup plan setting differs from the default, i.e. it has to be persisted.
+    public boolean hasStartupSchedule() {
+        return extras != null && (extras.startupPriority != 0 || extras.startupDelayMillis != 0 || extras.startupAfterPrevious);
+    }
+
+    private Extras extras() {
+        if (extras == null) {
+            extras = new Extras();
+        }
+        return extras;
+    }
+
+    private void dropDefaultExtras() {
+        if (extras != null && extras.isDefault()) {
+            extras = null;
+        }
+    }
+
+    /**
+     * Defers creating this folder's children until {@link #getChildren()} is first called.
+     */
+    public void setPendingChildren(ChildLoader loader) {
+        if (!isFolder()) {
+            throw new IllegalStateException("Only folders can have pending children.");
+        }
+        this.children = null;
+        this.pendingChildren = loader;
+    }
+
+    // True once the children exist as objects (always true for folders that were not loaded lazily).
+    public boolean isChildrenLoaded() {
+        return pendingChildren == null;
+    }
+
+    // Number of children, without loading pending ones. 0 for non-folders.
+    public int getChildCount() {
+        ChildLoader loader = pendingChildren;
+        if (loader != null) {
+            return loader.size();
+        }
+        return children == null ? 0 : children.size();
+    }
+
+    /**
+     * Arranges for {@code callback} to run once this folder's pending children have been created, on the thread
+     * that creates them, replacing any callback registered before. Copies do not inherit it.
+     * @return false if the children already exist, in which case the callback is not registered.
+     */
+    public synchronized boolean whenChildrenLoaded(Runnable callback) {
+        if (pendingChildren == null) {
+            return false;
+        }
+        childrenLoadedCallback = callback;
+        return true;
+    }
+
+    private synchronized void loadPendingChildren() {
+        ChildLoader loader = pendingChildren;
+        if (loader != null) {
+            children = new ArrayList<>(loader.load());
+            pendingChildren = null;
+            runChildrenLoadedCallback();
+        }
+    }
+
+    private synchronized void runChildrenLoadedCallback() {
+        Runnable callback = childrenLoadedCallback;
+        childrenLoadedCallback = null;
+        if (callback != null) {
+            callback.run();
+        }
+    }
+
+    /**
+     * Deep copy of this item, ids included. Children that have not been loaded yet stay pending in the copy,
+     * sharing the same loader, so copying a lazily loaded tree does not force it into memory.
+     */
+    public LauncherItem copy() {
+        if (!isFolder()) {
+            LauncherItem itemCopy = new LauncherItem(id, name, null, false, isStartupLauncher());
+            itemCopy.urlPrefix = urlPrefix; // Already split, so the copy shares the parts
+            itemCopy.urlOrPath = urlOrPath;
+            itemCopy.copyExtrasFrom(this);
+            return itemCopy;
+        }
+        LauncherItem folderCopy = new LauncherItem(id, name, null, true, isStartupLauncher());
+        folderCopy.copyExtrasFrom(this);
+        ChildLoader loader = pendingChildren;
+        if (loader != null) {
+            folderCopy.setPendingChildren(loader);
+        } else if (children != null) {
+            for (LauncherItem child : children) {
+                folderCopy.children.add(child.copy());
+            }
+        }
+        return folderCopy;
+    }
+
+    private void copyExtrasFrom(LauncherItem other) {
+        setLaunchStats(other.getLaunchCount(), other.getLastLaunchedAt());
+        setStartupSchedule(other.getStartupPriority(), other.getStartupDelayMillis(), other.isStartupAfterPrevious());
+    }
+
+    /**
+     * Shares this item's strings, and those of its loaded descendants, with equal ones seen by {@code pool},
+     * and trims the children lists to their size. Used after loading in compact memory mode.
+     */
+    public void compact(LauncherStrings.Pool pool) {
+        name = pool.dedupe(name);
+        if (urlPrefix == null) {
+            urlOrPath = pool.dedupe(urlOrPath);
+        }
+        if (pendingChildren == null && children instanceof ArrayList) {
+            ((ArrayList<LauncherItem>) children).trimToSize();
+            for (LauncherItem child : children) {
+                child.compact(pool);
+            }
+        }
+    }
+
+    ChildLoader getPendingChildren() {
+        return pendingChildren;
+    }
+
+    // NEW: Getter and Setter for isStartupLauncher
+    public boolean isStartupLauncher() {
+        return (flags & FLAG_STARTUP) != 0;
+    }
+
+    public void setStartupLauncher(boolean startupLauncher) {
+        flags = (byte) (startupLauncher ? flags | FLAG_STARTUP : flags & ~FLAG_STARTUP);
+    }
+
+    @Override
+    public String toString() {
+        return name + (isFolder() ? " (Folder)" : " (" + getUrlOrPath() + ")");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LauncherItem that = (LauncherItem) o;
+        // For equality, check if it's the same type (folder/non-folder)
+        // and if names match. For non-folders, paths must also match.
+        // For folders, children don't necessarily need to match for simple equality checks.
+        // The urlOrPath being null for folders effectively differentiates them.
+        if (isFolder() != that.isFolder()) return false;
+        if (!name.equals(that.name)) return false;
+        // If both are non-folders, compare their paths.
+        // If both are folders, no path to compare.
+        // If one is folder and other is not, already handled by isFolder check.
+        if (!isFolder()) { // It's a non-folder (URL or Shortcut)
+            return Objects.equals(getUrlOrPath(), that.getUrlOrPath());
+        }
+        // For folders, we only compare name and isFolder property.
+        // If you need deeper equality (e.g., same children), you'd need to iterate children.
+        // For current use (finding an item based on its path for modification),
+        // comparing paths for non-folders is key.
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        // Hash code should be consistent with equals.
+        // For non-folders, include urlOrPath. For folders, only name and isFolder.
+        return Objects.hash(name, getUrlOrPath(), isFolder());
+    }
+}
\ No newline at end of file
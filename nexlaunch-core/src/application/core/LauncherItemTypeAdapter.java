@@ -0,0 +1,154 @@
+package application.core;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming Gson adapter for LauncherItem trees.
+ * Writes the same field names the reflective Gson output used, so existing data files load unchanged,
+ * but walks the tree through the public accessors instead of reflection.
+ */
+public class LauncherItemTypeAdapter extends TypeAdapter<LauncherItem> {
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_NAME = "name";
+    private static final String FIELD_URL_OR_PATH = "urlOrPath";
+    private static final String FIELD_IS_FOLDER = "isFolder";
+    private static final String FIELD_IS_STARTUP = "isStartupLauncher";
+    private static final String FIELD_CHILDREN = "children";
+    private static final String FIELD_LAUNCH_COUNT = "launchCount";
+    private static final String FIELD_LAST_LAUNCHED = "lastLaunchedAt";
+    private static final String FIELD_STARTUP_PRIORITY = "startupPriority";
+    private static final String FIELD_STARTUP_DELAY = "startupDelayMillis";
+    private static final String FIELD_STARTUP_AFTER_PREVIOUS = "startupAfterPrevious";
+
+    public LauncherItemTypeAdapter() {
+        // Stateless; LauncherDataService shares one instance
+    }
+
+    @Override
+    public void write(JsonWriter out, LauncherItem item) throws IOException {
+        if (item == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name(FIELD_ID).value(item.getId());
+        out.name(FIELD_NAME).value(item.getName());
+        if (item.getUrlOrPath() != null) {
+            out.name(FIELD_URL_OR_PATH).value(item.getUrlOrPath());
+        }
+        out.name(FIELD_IS_FOLDER).value(item.isFolder());
+        out.name(FIELD_IS_STARTUP).value(item.isStartupLauncher());
+        if (item.getLaunchCount() > 0) { // Omitted for never-launched items to keep files small
+            out.name(FIELD_LAUNCH_COUNT).value(item.getLaunchCount());
+            out.name(FIELD_LAST_LAUNCHED).value(item.getLastLaunchedAt());
+        }
+        if (item.hasStartupSchedule()) { // Likewise omitted while all startup settings are at their defaults
+            out.name(FIELD_STARTUP_PRIORITY).value(item.getStartupPriority());
+            out.name(FIELD_STARTUP_DELAY).value(item.getStartupDelayMillis());
+            out.name(FIELD_STARTUP_AFTER_PREVIOUS).value(item.isStartupAfterPrevious());
+        }
+        List<LauncherItem> children = item.getChildren();
+        if (item.isFolder() && children != null) {
+            out.name(FIELD_CHILDREN);
+            out.beginArray();
+            for (LauncherItem child : children) {
+                write(out, child);
+            }
+            out.endArray();
+        }
+        out.endObject();
+    }
+
+    @Override
+    public LauncherItem read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        long id = 0; // Files written before items had ids have none; such items get a new one
+        String name = null;
+        String urlOrPath = null;
+        Boolean isFolder = null;
+        boolean isStartup = false;
+        int launchCount = 0;
+        long lastLaunchedAt = 0;
+        int startupPriority = 0;
+        long startupDelayMillis = 0;
+        boolean startupAfterPrevious = false;
+        List<LauncherItem> children = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String field = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (field) {
+                case FIELD_ID:
+                    id = in.nextLong();
+                    break;
+                case FIELD_NAME:
+                    name = in.nextString();
+                    break;
+                case FIELD_URL_OR_PATH:
+                    urlOrPath = in.nextString();
+                    break;
+                case FIELD_IS_FOLDER:
+                    isFolder = in.nextBoolean();
+                    break;
+                case FIELD_IS_STARTUP:
+                    isStartup = in.nextBoolean();
+                    break;
+                case FIELD_LAUNCH_COUNT:
+                    launchCount = in.nextInt();
+                    break;
+                case FIELD_LAST_LAUNCHED:
+                    lastLaunchedAt = in.nextLong();
+                    break;
+                case FIELD_STARTUP_PRIORITY:
+                    startupPriority = in.nextInt();
+                    break;
+                case FIELD_STARTUP_DELAY:
+                    startupDelayMillis = in.nextLong();
+                    break;
+                case FIELD_STARTUP_AFTER_PREVIOUS:
+                    startupAfterPrevious = in.nextBoolean();
+                    break;
+                case FIELD_CHILDREN:
+                    children = new ArrayList<>();
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        LauncherItem child = read(in);
+                        if (child != null) {
+                            children.add(child);
+                        }
+                    }
+                    in.endArray();
+                    break;
+                default:
+                    in.skipValue(); // Unknown field from a newer/older version
+                    break;
+            }
+        }
+        in.endObject();
+
+        // Older files may omit isFolder; a missing URL/path means folder, as in the three-arg constructor.
+        boolean folder = isFolder != null ? isFolder : urlOrPath == null;
+        LauncherItem item = LauncherItem.restore(id, name, urlOrPath, folder, isStartup);
+        if (folder && children != null) {
+            item.setChildren(children);
+        }
+        item.setLaunchStats(launchCount, lastLaunchedAt);
+        item.setStartupSchedule(startupPriority, startupDelayMillis, startupAfterPrevious);
+        return item;
+    }
+}
@@ -0,0 +1,456 @@
+package application.core;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of launcher edits made since the last snapshot.
+ * Each line is one compact JSON entry addressing an item by its id, e.g. {"op":"rename","id":42,"name":"Docs"},
+ * or for an add, the folder it went into ({"op":"add","parent":7,"item":{...}}; no parent means the top level).
+ * Replaying the lines in order over the snapshot rebuilds the current tree; the items are found through a
+ * {@link LauncherIndex}, so only the folders on the way to an edited item are decoded.
+ * Journals written before items had ids address them by index path from the top-level list instead
+ * ({"path":[2,0]}); those are still replayed.
+ * The first line, {"base":N}, names the snapshot generation the entries apply to, so a journal that
+ * was already folded into a newer snapshot (or belongs to a newer one than was loaded) is never replayed twice.
+ */
+public class LauncherJournal {
+
+    static final String OP_ADD = "add";
+    static final String OP_REMOVE = "remove";
+    static final String OP_RENAME = "rename";
+    static final String OP_STARTUP = "startup";
+    static final String OP_LAUNCH = "launch";
+    static final String OP_SCHEDULE = "schedule";
+
+    /** Parent id for items added to the top-level list. Real ids start at 1. */
+    public static final long TOP_LEVEL_ID = 0;
+
+    /** Base reported for journals written before generation headers existed; they apply to whatever snapshot is on disk. */
+    public static final long LEGACY_BASE = -1;
+    private static final String HEADER_PREFIX = "{\"base\":";
+
+    private final Path journalPath;
+    private final Path compactingPath;
+    private final TypeAdapter<LauncherItem> itemAdapter;
+    private int entryCount = -1; // Lazily counted from disk on first use
+    private long baseGeneration; // Written into the header when a new journal file is started
+
+    public LauncherJournal(Path journalPath, TypeAdapter<LauncherItem> itemAdapter) {
+        this.journalPath = journalPath;
+        this.compactingPath = journalPath.resolveSibling(journalPath.getFileName() + ".compacting");
+        this.itemAdapter = itemAdapter;
+    }
+
+    public Path getJournalPath() {
+        return journalPath;
+    }
+
+    public Path getCompactingPath() {
+        return compactingPath;
+    }
+
+    /**
+     * Sets the snapshot generation that a newly started journal file applies to.
+     */
+    public synchronized void setBaseGeneration(long baseGeneration) {
+        this.baseGeneration = baseGeneration;
+    }
+
+    public synchronized long getBaseGeneration() {
+        return baseGeneration;
+    }
+
+    /**
+     * @return The generation in the header of {@code file}, {@link #LEGACY_BASE} if it has none, or null if the file does not exist.
+     */
+    public Long readBase(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String firstLine = reader.readLine();
+            Long base = firstLine == null ? null : parseHeader(firstLine);
+            return base != null ? base : LEGACY_BASE;
+        }
+    }
+
+    /**
+     * Formats an entry recording that {@code item} was appended to the children of the folder with id
+     * {@code parentId} ({@link #TOP_LEVEL_ID} for the top-level list). The item is serialized immediately,
+     * so later edits to it do not leak into the entry.
+     */
+    public String addEntry(long parentId, LauncherItem item) throws IOException {
+        return formatEntry(OP_ADD, writer -> {
+            if (parentId != TOP_LEVEL_ID) {
+                writer.name("parent").value(parentId);
+            }
+            writer.name("item");
+            itemAdapter.write(writer, item);
+        });
+    }
+
+    public String removeEntry(long id) throws IOException {
+        return formatEntry(OP_REMOVE, writer -> writer.name("id").value(id));
+    }
+
+    public String renameEntry(long id, String newName) throws IOException {
+        return formatEntry(OP_RENAME, writer -> {
+            writer.name("id").value(id);
+            writer.name("name").value(newName);
+        });
+    }
+
+    public String startupEntry(long id, boolean isStartupLauncher) throws IOException {
+        return formatEntry(OP_STARTUP, writer -> {
+            writer.name("id").value(id);
+            writer.name("value").value(isStartupLauncher);
+        });
+    }
+
+    // Records the item's launch stats after a launch (absolute values, so replaying twice is harmless).
+    public String launchEntry(long id, int launchCount, long lastLaunchedAt) throws IOException {
+        return formatEntry(OP_LAUNCH, writer -> {
+            writer.name("id").value(id);
+            writer.name("count").value(launchCount);
+            writer.name("at").value(lastLaunchedAt);
+        });
+    }
+
+    // Records the item's startup plan settings (priority, delay, whether it waits for the launches before it).
+    public String scheduleEntry(long id, int priority, long delayMillis, boolean afterPrevious) throws IOException {
+        return formatEntry(OP_SCHEDULE, writer -> {
+            writer.name("id").value(id);
+            writer.name("priority").value(priority);
+            writer.name("delay").value(delayMillis);
+            writer.name("value").value(afterPrevious);
+        });
+    }
+
+    /**
+     * @return The number of entries in the live journal file.
+     */
+    public synchronized int getEntryCount() throws IOException {
+        if (entryCount < 0) {
+            entryCount = Files.exists(journalPath) ? countEntries(journalPath) : 0;
+        }
+        return entryCount;
+    }
+
+    /**
+     * Moves the live journal aside so a background compaction can fold it into the snapshot
+     * while new edits keep appending to a fresh journal. The fresh journal is based on the
+     * generation the compaction will produce.
+     * @return false if a previous compaction is still pending (its file is left untouched).
+     */
+    public synchronized boolean beginCompaction() throws IOException {
+        if (Files.exists(compactingPath) || !Files.exists(journalPath)) {
+            return false;
+        }
+        Long base = readBase(journalPath);
+        Files.move(journalPath, compactingPath, StandardCopyOption.ATOMIC_MOVE);
+        entryCount = 0;
+        baseGeneration = (base == null || base == LEGACY_BASE ? baseGeneration : base) + 1;
+        return true;
+    }
+
+    /**
+     * Called once the compacted entries are safely part of the snapshot.
+     */
+    public void finishCompaction() throws IOException {
+        Files.deleteIfExists(compactingPath);
+    }
+
+    /**
+     * Discards all journal entries; used after a full snapshot of the live tree has been written.
+     */
+    public synchronized void clear() throws IOException {
+        Files.deleteIfExists(journalPath);
+        Files.deleteIfExists(compactingPath);
+        entryCount = 0;
+    }
+
+    /**
+     * Applies the entries in {@code file} to {@code launchers} in order.
+     * A torn or unparseable line (e.g. from a crash mid-append) ends the replay; entries before it are kept.
+     * @return The number of entries applied.
+     */
+    public int replay(Path file, List<LauncherItem> launchers) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        int applied = 0;
+        LauncherIndex index = new LauncherIndex();
+        index.rebuild(launchers);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || parseHeader(line) != null) {
+                    continue;
+                }
+                try {
+                    apply(line, launchers, index);
+                    applied++;
+                } catch (IOException | IllegalStateException | JsonSyntaxException | IndexOutOfBoundsException e) {
+                    System.err.println("LauncherJournal: Stopping replay of " + file.getFileName() + " at unreadable entry " + (applied + 1) + ": " + e.getMessage());
+                    break;
+                }
+            }
+        }
+        return applied;
+    }
+
+    private void apply(String line, List<LauncherItem> launchers, LauncherIndex index) throws IOException {
+        String op = null;
+        long id = TOP_LEVEL_ID;
+        long parentId = TOP_LEVEL_ID;
+        int[] path = null; // Entries from before items had ids
+        LauncherItem item = null;
+        String name = null;
+        Boolean value = null;
+        int count = 0;
+        long at = 0;
+        int priority = 0;
+        long delay = 0;
+
+        try (JsonReader reader = new JsonReader(new StringReader(line))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "op":
+                        op = reader.nextString();
+                        break;
+                    case "id":
+                        id = reader.nextLong();
+                        break;
+                    case "parent":
+                        parentId = reader.nextLong();
+                        break;
+                    case "path":
+                        path = readPath(reader);
+                        break;
+                    case "item":
+                        item = itemAdapter.read(reader);
+                        break;
+                    case "name":
+                        name = reader.nextString();
+                        break;
+                    case "value":
+                        value = reader.nextBoolean();
+                        break;
+                    case "count":
+                        count = reader.nextInt();
+                        break;
+                    case "at":
+                        at = reader.nextLong();
+                        break;
+                    case "priority":
+                        priority = reader.nextInt();
+                        break;
+                    case "delay":
+                        delay = reader.nextLong();
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+        }
+
+        if (op == null) {
+            throw new JsonSyntaxException("Journal entry has no 'op'");
+        }
+
+        if (OP_ADD.equals(op)) {
+            if (item == null) {
+                throw new JsonSyntaxException("Journal add entry has no item");
+            }
+            LauncherItem parent = path != null ? folderAt(launchers, path) : parentId == TOP_LEVEL_ID ? null : find(index, parentId);
+            if (parent == null) {
+                launchers.add(item);
+            } else {
+                folderChildren(parent).add(item);
+            }
+            index.add(item, parent);
+            return;
+        }
+
+        LauncherItem target = path != null ? resolve(launchers, path) : find(index, id);
+        switch (op) {
+            case OP_REMOVE:
+                LauncherItem parent = index.parentOf(target);
+                if (parent == null) {
+                    removeIdentity(launchers, target);
+                } else {
+                    parent.removeChild(target);
+                }
+                index.remove(target);
+                break;
+            case OP_RENAME:
+                if (name == null) {
+                    throw new JsonSyntaxException("Journal rename entry has no name");
+                }
+                target.setName(name);
+                break;
+            case OP_STARTUP:
+                target.setStartupLauncher(Boolean.TRUE.equals(value));
+                break;
+            case OP_LAUNCH:
+                target.setLaunchStats(count, at);
+                break;
+            case OP_SCHEDULE:
+                target.setStartupSchedule(priority, delay, Boolean.TRUE.equals(value));
+                break;
+            default:
+                throw new JsonSyntaxException("Unknown journal op: " + op);
+        }
+    }
+
+    private static int[] readPath(JsonReader reader) throws IOException {
+        List<Integer> indices = new ArrayList<>();
+        reader.beginArray();
+        while (reader.peek() != JsonToken.END_ARRAY) {
+            indices.add(reader.nextInt());
+        }
+        reader.endArray();
+        int[] path = new int[indices.size()];
+        for (int i = 0; i < path.length; i++) {
+            path[i] = indices.get(i);
+        }
+        return path;
+    }
+
+    private static LauncherItem resolve(List<LauncherItem> launchers, int[] path) {
+        if (path.length == 0) {
+            throw new IllegalStateException("Empty path does not address an item");
+        }
+        return parentListOf(launchers, path).get(path[path.length - 1]);
+    }
+
+    private static List<LauncherItem> parentListOf(List<LauncherItem> launchers, int[] path) {
+        if (path.length == 0) {
+            throw new IllegalStateException("Empty path does not address an item");
+        }
+        List<LauncherItem> current = launchers;
+        for (int i = 0; i < path.length - 1; i++) {
+            current = folderChildren(current.get(path[i]));
+        }
+        return current;
+    }
+
+    // The folder at {@code path}, or null for the empty path (the top-level list).
+    private static LauncherItem folderAt(List<LauncherItem> launchers, int[] path) {
+        LauncherItem folder = null;
+        List<LauncherItem> current = launchers;
+        for (int index : path) {
+            folder = current.get(index);
+            current = folderChildren(folder);
+        }
+        return folder;
+    }
+
+    private static LauncherItem find(LauncherIndex index, long id) {
+        LauncherItem item = index.find(id);
+        if (item == null) {
+            throw new IllegalStateException("No launcher with id " + id);
+        }
+        return item;
+    }
+
+    // LauncherItem.equals compares names and paths, so List.remove(Object) could take a look-alike sibling.
+    private static void removeIdentity(List<LauncherItem> items, LauncherItem item) {
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) == item) {
+                items.remove(i);
+                return;
+            }
+        }
+    }
+
+    private static List<LauncherItem> folderChildren(LauncherItem item) {
+        if (!item.isFolder() || item.getChildren() == null) {
+            throw new IllegalStateException("Journal path runs through non-folder item '" + item.getName() + "'");
+        }
+        return item.getChildren();
+    }
+
+    @FunctionalInterface
+    private interface EntryBody {
+        void write(JsonWriter writer) throws IOException;
+    }
+
+    private static String formatEntry(String op, EntryBody body) throws IOException {
+        StringWriter line = new StringWriter(64);
+        try (JsonWriter writer = new JsonWriter(line)) {
+            writer.beginObject();
+            writer.name("op").value(op);
+            body.write(writer);
+            writer.endObject();
+        }
+        return line.toString();
+    }
+
+    /**
+     * Appends formatted entries to the live journal with a single open/write, starting a new file
+     * (with its generation header) if needed.
+     */
+    public synchronized void append(List<String> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        getEntryCount(); // Make sure the count reflects what is already on disk before appending
+
+        boolean newFile = !Files.exists(journalPath) || Files.size(journalPath) == 0;
+        try (BufferedWriter out = Files.newBufferedWriter(journalPath, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE)) {
+            if (newFile) {
+                out.write(HEADER_PREFIX + baseGeneration + "}\n");
+            }
+            for (String entry : entries) {
+                out.write(entry);
+                out.write('\n');
+            }
+        }
+        entryCount += entries.size();
+    }
+
+    private static int countEntries(Path file) throws IOException {
+        int entries = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && parseHeader(line) == null) {
+                    entries++;
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static Long parseHeader(String line) {
+        if (!line.startsWith(HEADER_PREFIX) || !line.endsWith("}")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(line.substring(HEADER_PREFIX.length(), line.length() - 1).trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package application.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The master list of launchers, and the only place that changes it.
+ *
+ * Every edit goes through one of the methods below, which applies it to the tree and the
+ * {@link LauncherIndex} and then tells the listeners what changed, so views derived from the tree
+ * (the startup set, the search index, the journal, the TreeViews) update incrementally instead of
+ * recomputing themselves. Listeners are called synchronously, in the order they were added, after the
+ * change was applied. Not thread-safe; the controller uses it on the FX thread.
+ */
+public class LauncherRepository {
+
+    public enum ChangeType {
+        ADDED, REMOVED, RENAMED, STARTUP_CHANGED, SCHEDULE_CHANGED, LAUNCHED, RELOADED
+    }
+
+    /**
+     * One change to the tree. For {@link ChangeType#RELOADED} the item and parent are null:
+     * everything was replaced. Changes carry no index path, which would cost a sibling scan per level on
+     * every edit; the few listeners that need one ask {@link LauncherRepository#pathOf}.
+     */
+    public static final class Change {
+        private final ChangeType type;
+        private final LauncherItem item;
+        private final LauncherItem parent;
+
+        Change(ChangeType type, LauncherItem item, LauncherItem parent) {
+            this.type = type;
+            this.item = item;
+            this.parent = parent;
+        }
+
+        public ChangeType getType() {
+            return type;
+        }
+
+        public LauncherItem getItem() {
+            return item;
+        }
+
+        // The folder holding the item (for REMOVED: the one it was removed from), null for the top level.
+        public LauncherItem getParent() {
+            return parent;
+        }
+
+        // The persistent id of the item, which journal entries and the index address it by. 0 for RELOADED.
+        public long getItemId() {
+            return item == null ? 0 : item.getId();
+        }
+    }
+
+    public interface Listener {
+        void onChange(Change change);
+    }
+
+    private final List<LauncherItem> topLevel = new ArrayList<>();
+    private final List<LauncherItem> topLevelView = Collections.unmodifiableList(topLevel);
+    private final LauncherIndex index = new LauncherIndex();
+    private final List<Listener> listeners = new ArrayList<>();
+
+    public LauncherRepository() {
+        // Starts empty; replaceAll fills it with the loaded launchers
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return A live, read-only view of the top-level launchers.
+     */
+    public List<LauncherItem> getTopLevel() {
+        return topLevelView;
+    }
+
+    /**
+     * Replaces every launcher, e.g. with the ones just loaded from disk.
+     */
+    public void replaceAll(List<LauncherItem> launchers) {
+        topLevel.clear();
+        topLevel.addAll(launchers);
+        index.rebuild(topLevel);
+        fire(new Change(ChangeType.RELOADED, null, null));
+    }
+
+    /**
+     * Appends {@code item} to the children of {@code parent}, or to the top level if it is null.
+     * @throws IllegalArgumentException If {@code parent} is not a folder in this repository.
+     */
+    public void add(LauncherItem item, LauncherItem parent) {
+        if (parent != null && (!parent.isFolder() || !index.contains(parent))) {
+            throw new IllegalArgumentException("'" + parent.getName() + "' is not a folder in the launcher list");
+        }
+        if (parent == null) {
+            topLevel.add(item);
+        } else {
+            parent.addChild(item);
+        }
+        index.add(item, parent);
+        fire(new Change(ChangeType.ADDED, item, parent));
+    }
+
+    /**
+     * Removes {@code item} with everything inside it.
+     * @return false if it is not in this repository.
+     */
+    public boolean remove(LauncherItem item) {
+        if (!index.contains(item)) {
+            return false;
+        }
+        LauncherItem parent = index.parentOf(item);
+        if (parent == null) {
+            removeTopLevel(item);
+        } else {
+            parent.removeChild(item);
+        }
+        index.remove(item);
+        fire(new Change(ChangeType.REMOVED, item, parent));
+        return true;
+    }
+
+    public void rename(LauncherItem item, String newName) {
+        LauncherItem parent = requireParent(item);
+        item.setName(newName);
+        fire(new Change(ChangeType.RENAMED, item, parent));
+    }
+
+    public void setStartupLauncher(LauncherItem item, boolean isStartupLauncher) {
+        LauncherItem parent = requireParent(item);
+        item.setStartupLauncher(isStartupLauncher);
+        fire(new Change(ChangeType.STARTUP_CHANGED, item, parent));
+    }
+
+    public void setStartupSchedule(LauncherItem item, int priority, long delayMillis, boolean afterPrevious) {
+        LauncherItem parent = requireParent(item);
+        item.setStartupSchedule(priority, delayMillis, afterPrevious);
+        fire(new Change(ChangeType.SCHEDULE_CHANGED, item, parent));
+    }
+
+    // Counts a launch at the given time (epoch millis).
+    public void recordLaunch(LauncherItem item, long launchedAt) {
+        LauncherItem parent = requireParent(item);
+        item.recordLaunch(launchedAt);
+        fire(new Change(ChangeType.LAUNCHED, item, parent));
+    }
+
+    public boolean contains(LauncherItem item) {
+        return index.contains(item);
+    }
+
+    public LauncherItem parentOf(LauncherItem item) {
+        return index.parentOf(item);
+    }
+
+    // Index path of {@code item} from the top-level list, or null if it is not in this repository. Costs a sibling scan per level.
+    public int[] pathOf(LauncherItem item) {
+        return index.pathOf(item, topLevel);
+    }
+
+    // The folder holding {@code item}, null for the top level.
+    private LauncherItem requireParent(LauncherItem item) {
+        if (!index.contains(item)) {
+            throw new IllegalArgumentException("'" + item.getName() + "' is not in the launcher list");
+        }
+        return index.parentOf(item);
+    }
+
+    // By identity: LauncherItem.equals compares names and paths, so remove(Object) could take a look-alike.
+    private void removeTopLevel(LauncherItem item) {
+        for (int i = 0; i < topLevel.size(); i++) {
+            if (topLevel.get(i) == item) {
+                topLevel.remove(i);
+                return;
+            }
+        }
+    }
+
+    private void fire(Change change) {
+        for (Listener listener : listeners) {
+            listener.onChange(change);
+        }
+    }
+}
@@ -0,0 +1,732 @@
+package application.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * In-memory trigram index over launcher names and URLs/paths, for substring search.
+ *
+ * Every indexed item gets a small integer id; for each trigram (three consecutive lowercase
+ * characters) of its name or URL the id is kept in a sorted posting list. A query intersects the
+ * posting lists of its own trigrams, starting from the shortest, and checks the few candidates left
+ * against the full text. Query time therefore depends on the rarest trigram in the query rather than
+ * on the size of the tree. Queries shorter than three characters scan the precomputed lowercase forms.
+ * The posting lists are only kept by an index created for substring search; without them {@link #search}
+ * scans too.
+ *
+ * {@link #rank} instead scores every item with {@link FuzzyMatcher} plus a bonus for frequently and
+ * recently launched items, and keeps the best few in a bounded heap. Names and URLs are stored as
+ * lowercase {@code char[]}s so both kinds of query compare characters without allocating.
+ *
+ * Items are tracked by identity. The index is updated in place on add, remove and rename; it never
+ * reads the tree itself, only {@link Snapshot}s taken by the thread that edits the tree, so it can be
+ * built and queried elsewhere. Until the first rebuild, updates are ignored, so the index can be built
+ * lazily when it is first searched. Not thread-safe: confine it to one thread (LauncherSearchService
+ * runs every build, update and query on its search thread).
+ */
+public class LauncherSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int URL_MATCH_PENALTY = 16; // A name match ranks above an equally good URL/path match
+    private static final int MAX_FREQUENCY_BONUS = 24;
+    private static final int RECENT_HOUR_BONUS = 16;
+    private static final long HOUR_MILLIS = 60L * 60 * 1000;
+    // Removed items leave empty id slots; once there are more of them than live items (and at least this many) the ids are renumbered.
+    private static final int MIN_SLOTS_TO_COMPACT = 1024;
+
+    private static final class Entry {
+        int id;
+        final LauncherItem item;
+        final LauncherItem parent; // null for top-level items
+        char[] name;               // Lowercase
+        final char[] urlOrPath;    // Lowercase, null for folders
+
+        Entry(int id, LauncherItem item, LauncherItem parent, String name, String urlOrPath) {
+            this.id = id;
+            this.item = item;
+            this.parent = parent;
+            this.name = lower(name);
+            this.urlOrPath = lower(urlOrPath);
+        }
+
+        long charMask() {
+            return FuzzyMatcher.charMask(name) | FuzzyMatcher.charMask(urlOrPath);
+        }
+
+        boolean matches(char[] query) {
+            return FuzzyMatcher.contains(name, query) || FuzzyMatcher.contains(urlOrPath, query);
+        }
+    }
+
+    private final Map<LauncherItem, Entry> entriesByItem = new IdentityHashMap<>();
+    private final List<Entry> entriesById = new ArrayList<>(); // Slots of removed items are null
+    private long[] charMasks = new long[64]; // By id; kept apart from the entries so the ranking scan reads them sequentially
+    private final Map<Long, Postings> postings = new HashMap<>(); // Empty unless trigrams is set
+    private final boolean trigrams;
+    private int liveCount;
+    private boolean built;
+
+    /**
+     * Creates an index for {@link #search}: it keeps trigram posting lists.
+     */
+    public LauncherSearchIndex() {
+        this(true);
+    }
+
+    /**
+     * @param trigrams true to keep trigram posting lists, which only {@link #search} uses; an index that is
+     *                 only {@link #rank ranked} does without them.
+     */
+    public LauncherSearchIndex(boolean trigrams) {
+        this.trigrams = trigrams;
+    }
+
+    /**
+     * A copy of what the index reads from part of the launcher tree: each item with its parent,
+     * name and URL/path, every folder before its contents. Take it on the thread that edits the tree and
+     * hand it to the index's thread, so the index never walks lists that may be changing under it.
+     * A copy of a large tree can be taken in slices ({@link #begin}, then {@link #copyMore} until it returns
+     * true), so that thread is never blocked for the whole walk; the tree must not change between slices.
+     */
+    public static final class Snapshot {
+        private final List<LauncherItem> items = new ArrayList<>();
+        private final List<LauncherItem> parents = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+        private final List<String> urlsOrPaths = new ArrayList<>();
+        private final Deque<Level> levels = new ArrayDeque<>(); // Lists still being copied, innermost first
+
+        // One list on the way down the tree, and how far it has been copied.
+        private static final class Level {
+            final List<LauncherItem> children;
+            final LauncherItem parent;
+            int next;
+
+            Level(List<LauncherItem> children, LauncherItem parent) {
+                this.children = children;
+                this.parent = parent;
+            }
+        }
+
+        private Snapshot() {
+        }
+
+        /**
+         * Copies every item in {@code topLevel}, including the contents of all folders (which loads any
+         * lazily loaded folder).
+         */
+        public static Snapshot of(List<LauncherItem> topLevel) {
+            Snapshot snapshot = begin(topLevel);
+            snapshot.copyMore(Integer.MAX_VALUE);
+            return snapshot;
+        }
+
+        /**
+         * Copies {@code item} as a child of {@code parent} (null for a top-level item) and, for a folder,
+         * its contents.
+         */
+        public static Snapshot of(LauncherItem item, LauncherItem parent) {
+            Snapshot snapshot = new Snapshot();
+            snapshot.levels.push(new Level(Collections.singletonList(item), parent));
+            snapshot.copyMore(Integer.MAX_VALUE);
+            return snapshot;
+        }
+
+        /**
+         * Starts a copy of {@code topLevel} and everything below it without copying anything yet.
+         */
+        public static Snapshot begin(List<LauncherItem> topLevel) {
+            Snapshot snapshot = new Snapshot();
+            snapshot.levels.push(new Level(topLevel, null));
+            return snapshot;
+        }
+
+        /**
+         * Copies up to {@code maxItems} more items, in the same order as {@link #of(List)}.
+         * @return true once everything is copied.
+         */
+        public boolean copyMore(int maxItems) {
+            int copied = 0;
+            while (!levels.isEmpty() && copied < maxItems) {
+                Level level = levels.peek();
+                if (level.next == level.children.size()) {
+                    levels.pop();
+                    continue;
+                }
+                LauncherItem item = level.children.get(level.next++);
+                items.add(item);
+                parents.add(level.parent);
+                names.add(item.getName());
+                urlsOrPaths.add(item.getUrlOrPath());
+                copied++;
+                if (item.isFolder() && item.getChildren() != null) {
+                    levels.push(new Level(item.getChildren(), item));
+                }
+            }
+            return levels.isEmpty();
+        }
+
+        public int size() {
+            return items.size();
+        }
+    }
+
+    /**
+     * Replaces the index content with the items in {@code snapshot}.
+     */
+    public void rebuild(Snapshot snapshot) {
+        entriesByItem.clear();
+        entriesById.clear();
+        postings.clear();
+        liveCount = 0;
+        built = true;
+        add(snapshot);
+        for (Postings list : postings.values()) {
+            list.trim();
+        }
+    }
+
+    /**
+     * Drops the index content; it is ignored again until the next {@link #rebuild}.
+     */
+    public void invalidate() {
+        entriesByItem.clear();
+        entriesById.clear();
+        postings.clear();
+        liveCount = 0;
+        built = false;
+    }
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * Indexes the items in {@code snapshot}, e.g. a folder that was just added with its contents.
+     * Items that are already indexed are left as they are.
+     */
+    public void add(Snapshot snapshot) {
+        if (!built) {
+            return;
+        }
+        for (int i = 0; i < snapshot.size(); i++) {
+            LauncherItem item = snapshot.items.get(i);
+            if (entriesByItem.containsKey(item)) {
+                continue;
+            }
+            Entry entry = new Entry(entriesById.size(), item, snapshot.parents.get(i), snapshot.names.get(i),
+                    snapshot.urlsOrPaths.get(i));
+            entriesById.add(entry);
+            if (entry.id == charMasks.length) {
+                charMasks = Arrays.copyOf(charMasks, charMasks.length * 2);
+            }
+            charMasks[entry.id] = entry.charMask();
+            entriesByItem.put(item, entry);
+            liveCount++;
+            if (trigrams) {
+                forEachGram(entry, gram -> postingsFor(gram).add(entry.id));
+            }
+        }
+    }
+
+    /**
+     * Removes the items in {@code snapshot}, e.g. a folder that was just removed with its contents.
+     */
+    public void remove(Snapshot snapshot) {
+        for (LauncherItem item : snapshot.items) {
+            Entry entry = entriesByItem.remove(item);
+            if (entry == null) {
+                continue;
+            }
+            if (trigrams) {
+                forEachGram(entry, gram -> removePosting(gram, entry.id));
+            }
+            entriesById.set(entry.id, null);
+            liveCount--;
+        }
+        int emptySlots = entriesById.size() - liveCount;
+        if (emptySlots >= MIN_SLOTS_TO_COMPACT && emptySlots > liveCount) {
+            compact();
+        }
+    }
+
+    // Renumbers the live entries in their current order, so scans no longer step over the slots of removed items.
+    private void compact() {
+        List<Entry> live = new ArrayList<>(liveCount);
+        for (Entry entry : entriesById) {
+            if (entry != null) {
+                live.add(entry);
+            }
+        }
+        entriesById.clear();
+        postings.clear();
+        charMasks = new long[Math.max(64, Integer.highestOneBit(Math.max(1, live.size())) * 2)];
+        for (Entry entry : live) {
+            entry.id = entriesById.size();
+            entriesById.add(entry);
+            charMasks[entry.id] = entry.charMask();
+            if (trigrams) {
+                forEachGram(entry, gram -> postingsFor(gram).add(entry.id));
+            }
+        }
+        for (Postings list : postings.values()) {
+            list.trim();
+        }
+    }
+
+    /**
+     * Re-indexes the name of {@code item} after it was renamed to {@code name}. The item keeps its id.
+     */
+    public void rename(LauncherItem item, String name) {
+        Entry entry = entriesByItem.get(item);
+        if (entry == null) {
+            return;
+        }
+        char[] oldName = entry.name;
+        char[] newName = lower(name);
+        if (trigrams) {
+            forEachGram(oldName, gram -> {
+                if (newName == null || !containsGram(newName, gram)) {
+                    // Still referenced if the URL contains it
+                    if (entry.urlOrPath == null || !containsGram(entry.urlOrPath, gram)) {
+                        removePosting(gram, entry.id);
+                    }
+                }
+            });
+            forEachGram(newName, gram -> postingsFor(gram).add(entry.id));
+        }
+        entry.name = newName;
+        charMasks[entry.id] = entry.charMask();
+    }
+
+    public boolean contains(LauncherItem item) {
+        return entriesByItem.containsKey(item);
+    }
+
+    /**
+     * @return The folder that holds {@code item} as indexed, or null for a top-level or unknown item.
+     */
+    public LauncherItem parentOf(LauncherItem item) {
+        Entry entry = entriesByItem.get(item);
+        return entry == null ? null : entry.parent;
+    }
+
+    public int size() {
+        return liveCount;
+    }
+
+    /**
+     * @return The items whose name or URL/path contains {@code text} (case-insensitive), in indexing order.
+     */
+    public List<LauncherItem> search(String text) {
+        return search(text, null);
+    }
+
+    /**
+     * Like {@link #search(String)}, but may narrow down {@code previousHits} instead of querying the
+     * posting lists, when that is the cheaper of the two.
+     * @param previousHits The result of an earlier search for a substring of {@code text}, made with no
+     *                     index updates in between, or null.
+     */
+    public List<LauncherItem> search(String text, List<LauncherItem> previousHits) {
+        char[] query = lower(text);
+        List<LauncherItem> results = new ArrayList<>();
+        if (query == null || query.length == 0) {
+            return results;
+        }
+        if (previousHits != null && previousHits.size() <= candidateEstimate(query)) {
+            // Anything containing the longer query also contains the one it extends.
+            for (LauncherItem hit : previousHits) {
+                Entry entry = entriesByItem.get(hit);
+                if (entry != null && entry.matches(query)) {
+                    results.add(hit);
+                }
+            }
+            return results;
+        }
+        if (query.length < GRAM || !trigrams) {
+            for (Entry entry : entriesById) {
+                if (entry != null && entry.matches(query)) {
+                    results.add(entry.item);
+                }
+            }
+            return results;
+        }
+
+        // Shortest posting list first: every later list only has to be probed for its survivors.
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM <= query.length; i++) {
+            Postings list = postings.get(gramAt(query, i));
+            if (list == null) {
+                return results;
+            }
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+        Postings shortest = lists.get(0);
+        candidates:
+        for (int i = 0; i < shortest.size; i++) {
+            int id = shortest.ids[i];
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(id)) {
+                    continue candidates;
+                }
+            }
+            Entry entry = entriesById.get(id);
+            // The trigrams may come from different fields, or be out of order, so confirm the substring.
+            if (entry != null && entry.matches(query)) {
+                results.add(entry.item);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * The outcome of {@link #rank}: the best hits, best first, plus every matching id so that a
+     * following, longer query can be ranked from these matches alone.
+     */
+    public static final class Ranking {
+        private final String query;
+        private final int[] matchedIds;
+        private final int matchCount;
+        private final boolean complete; // False if typo-tolerant matches were not looked for
+        private final List<LauncherItem> top;
+
+        Ranking(String query, int[] matchedIds, int matchCount, boolean complete, List<LauncherItem> top) {
+            this.query = query;
+            this.matchedIds = matchedIds;
+            this.matchCount = matchCount;
+            this.complete = complete;
+            this.top = top;
+        }
+
+        public List<LauncherItem> getTop() {
+            return top;
+        }
+
+        /**
+         * @return The number of matching items, which can exceed the number of results kept.
+         */
+        public int getMatchCount() {
+            return matchCount;
+        }
+
+        // Whether everything matching {@code longerQuery} is among these matches.
+        boolean covers(String longerQuery) {
+            if (!complete || !longerQuery.contains(query)) {
+                return false;
+            }
+            // Typo tolerance only starts at TYPO_MIN_LENGTH, so a short query can miss what its longer extension
+            // matches with a skipped character.
+            return query.length() >= FuzzyMatcher.TYPO_MIN_LENGTH || longerQuery.length() < FuzzyMatcher.TYPO_MIN_LENGTH;
+        }
+    }
+
+    /**
+     * Scores every indexed item against {@code text} with {@link FuzzyMatcher} (the name counts more than
+     * the URL/path) and adds a bonus for how often and how recently it was launched.
+     * @param limit    Maximum number of results.
+     * @param now      Current time in epoch millis, for the recency bonus.
+     * @param previous The ranking of an earlier query with no index updates since, or null; used when it
+     *                 is known to contain every match of {@code text}.
+     * @param cancelled Polled during the scan; when it returns true the scan stops and null is returned.
+     */
+    public Ranking rank(String text, int limit, long now, Ranking previous, BooleanSupplier cancelled) {
+        String lowerText = text.toLowerCase(Locale.ROOT);
+        char[] query = lowerText.toCharArray();
+        boolean refine = previous != null && previous.covers(lowerText);
+        int candidates = refine ? previous.matchCount : entriesById.size();
+        long queryMask = FuzzyMatcher.charMask(query);
+
+        TopScores best = new TopScores(limit);
+        int[] matched = new int[Math.min(candidates, 1024)];
+        int matchCount = 0;
+        BitSet exactMatches = new BitSet();
+        for (int i = 0; i < candidates; i++) {
+            if ((i & 0xFFF) == 0 && cancelled.getAsBoolean()) {
+                return null;
+            }
+            int id = refine ? previous.matchedIds[i] : i;
+            if ((queryMask & ~charMasks[id]) != 0) {
+                continue;
+            }
+            Entry entry = entriesById.get(id);
+            if (entry == null) {
+                continue;
+            }
+            int score = bestScore(FuzzyMatcher.scoreExact(query, entry.name), FuzzyMatcher.scoreExact(query, entry.urlOrPath));
+            if (score != FuzzyMatcher.NO_MATCH) {
+                if (matchCount == matched.length) {
+                    matched = Arrays.copyOf(matched, matchCount * 2);
+                }
+                matched[matchCount++] = id;
+                exactMatches.set(id);
+                best.offer(score + usageBonus(entry.item, now), id);
+            }
+        }
+
+        // Typo-tolerant matches only matter when exact ones do not fill the results, so the costlier
+        // second pass is skipped otherwise (and such a ranking cannot be refined by a longer query).
+        boolean typoPass = query.length >= FuzzyMatcher.TYPO_MIN_LENGTH && matchCount < limit;
+        if (typoPass) {
+            // Leaving out one query character can only make up for a missing character that occurs once in the query.
+            long repeatedMask = FuzzyMatcher.repeatedCharMask(query);
+            for (int i = 0; i < candidates; i++) {
+                if ((i & 0xFFF) == 0 && cancelled.getAsBoolean()) {
+                    return null;
+                }
+                int id = refine ? previous.matchedIds[i] : i;
+                long missing = queryMask & ~charMasks[id];
+                if (exactMatches.get(id) || Long.bitCount(missing) > 1 || (missing & repeatedMask) != 0) {
+                    continue;
+                }
+                Entry entry = entriesById.get(id);
+                if (entry == null) {
+                    continue;
+                }
+                int score = bestScore(FuzzyMatcher.scoreWithTypo(query, entry.name), FuzzyMatcher.scoreWithTypo(query, entry.urlOrPath));
+                if (score != FuzzyMatcher.NO_MATCH) {
+                    if (matchCount == matched.length) {
+                        matched = Arrays.copyOf(matched, matchCount * 2);
+                    }
+                    matched[matchCount++] = id;
+                    best.offer(score + usageBonus(entry.item, now), id);
+                }
+            }
+        }
+
+        int[] topIds = best.idsBestFirst();
+        List<LauncherItem> top = new ArrayList<>(topIds.length);
+        for (int id : topIds) {
+            top.add(entriesById.get(id).item);
+        }
+        boolean complete = typoPass || query.length < FuzzyMatcher.TYPO_MIN_LENGTH;
+        return new Ranking(lowerText, matched, matchCount, complete, top);
+    }
+
+    // A name match counts fully, a URL/path match URL_MATCH_PENALTY less.
+    private static int bestScore(int nameScore, int urlScore) {
+        if (urlScore == FuzzyMatcher.NO_MATCH) {
+            return nameScore;
+        }
+        return Math.max(nameScore, urlScore - URL_MATCH_PENALTY);
+    }
+
+    // Up to MAX_FREQUENCY_BONUS for launch count (logarithmic), plus up to RECENT_HOUR_BONUS for recency.
+    private static int usageBonus(LauncherItem item, long now) {
+        int count = item.getLaunchCount();
+        if (count <= 0) {
+            return 0;
+        }
+        int frequency = Math.min(MAX_FREQUENCY_BONUS, 4 * (32 - Integer.numberOfLeadingZeros(count)));
+        long age = now - item.getLastLaunchedAt();
+        int recency;
+        if (age < HOUR_MILLIS) {
+            recency = RECENT_HOUR_BONUS;
+        } else if (age < 24 * HOUR_MILLIS) {
+            recency = RECENT_HOUR_BONUS * 3 / 4;
+        } else if (age < 7 * 24 * HOUR_MILLIS) {
+            recency = RECENT_HOUR_BONUS / 2;
+        } else if (age < 30 * 24 * HOUR_MILLIS) {
+            recency = RECENT_HOUR_BONUS / 4;
+        } else {
+            recency = 0;
+        }
+        return frequency + recency;
+    }
+
+    // Upper bound on the candidates a fresh query would have to check.
+    private int candidateEstimate(char[] query) {
+        if (query.length < GRAM || !trigrams) {
+            return liveCount;
+        }
+        int smallest = Integer.MAX_VALUE;
+        for (int i = 0; i + GRAM <= query.length; i++) {
+            Postings list = postings.get(gramAt(query, i));
+            if (list == null) {
+                return 0;
+            }
+            smallest = Math.min(smallest, list.size);
+        }
+        return smallest;
+    }
+
+    private Postings postingsFor(long gram) {
+        return postings.computeIfAbsent(gram, g -> new Postings());
+    }
+
+    private void removePosting(long gram, int id) {
+        Postings list = postings.get(gram);
+        if (list != null && list.remove(id) && list.size == 0) {
+            postings.remove(gram);
+        }
+    }
+
+    @FunctionalInterface
+    private interface GramConsumer {
+        void accept(long gram);
+    }
+
+    // Visits the trigrams of an entry's name and URL. A trigram that occurs more than once is visited
+    // more than once; Postings.add and remove ignore the repeats.
+    private static void forEachGram(Entry entry, GramConsumer consumer) {
+        forEachGram(entry.name, consumer);
+        forEachGram(entry.urlOrPath, consumer);
+    }
+
+    private static void forEachGram(char[] text, GramConsumer consumer) {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM <= text.length; i++) {
+            consumer.accept(gramAt(text, i));
+        }
+    }
+
+    private static boolean containsGram(char[] text, long gram) {
+        for (int i = 0; i + GRAM <= text.length; i++) {
+            if (gramAt(text, i) == gram) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long gramAt(char[] text, int index) {
+        return ((long) text[index] << 32) | ((long) text[index + 1] << 16) | text[index + 2];
+    }
+
+    static char[] lower(String text) {
+        return text == null ? null : text.toLowerCase(Locale.ROOT).toCharArray();
+    }
+
+    /**
+     * Min-heap of the best {@code capacity} (score, id) pairs, packed into longs so offering a candidate
+     * allocates nothing. On equal scores the lower id (the item indexed first) wins.
+     */
+    private static final class TopScores {
+        private final long[] heap;
+        private int size;
+
+        TopScores(int capacity) {
+            heap = new long[Math.max(capacity, 0)];
+        }
+
+        void offer(int score, int id) {
+            if (heap.length == 0) {
+                return;
+            }
+            long packed = ((long) score << 32) | (Integer.MAX_VALUE - id);
+            if (size < heap.length) {
+                heap[size] = packed;
+                siftUp(size++);
+            } else if (packed > heap[0]) {
+                heap[0] = packed;
+                siftDown(0);
+            }
+        }
+
+        int[] idsBestFirst() {
+            long[] sorted = Arrays.copyOf(heap, size);
+            Arrays.sort(sorted);
+            int[] ids = new int[size];
+            for (int i = 0; i < size; i++) {
+                ids[i] = Integer.MAX_VALUE - (int) sorted[size - 1 - i];
+            }
+            return ids;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (heap[parent] <= heap[index]) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int smallest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && heap[left] < heap[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && heap[right] < heap[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(index, smallest);
+                index = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+
+    /** Sorted, duplicate-free list of entry ids. New ids are always the largest, so adding is normally an append. */
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size == 0 || ids[size - 1] < id) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                }
+                ids[size++] = id;
+                return;
+            }
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                return;
+            }
+            int insertAt = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        void trim() {
+            if (ids.length > size) {
+                ids = Arrays.copyOf(ids, Math.max(size, 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package application.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs launcher searches on a background thread so the UI can search on every keystroke.
+ *
+ * The {@link LauncherSearchIndex} is confined to the single search thread: building it, applying
+ * edits to it and querying it are all tasks on that thread, executed in submission order. Each query
+ * gets a sequence number; a query that is no longer the latest stops at its next checkpoint, and
+ * results of a superseded query are never handed to the UI. Results are delivered in batches through
+ * the UI executor (Platform.runLater in the app), so a large result set never blocks the UI in one go.
+ * The search thread never reads the launcher tree: the UI thread copies what the index needs into a
+ * {@link LauncherSearchIndex.Snapshot}, for the whole tree when the index is built and for the edited
+ * items on every change, so the index always matches a state the tree was actually in. The copy of the
+ * whole tree is taken in slices of {@link #SNAPSHOT_SLICE_ITEMS}, each its own UI task, so the first
+ * keystroke does not freeze the UI while every folder is decoded; an edit between slices starts the copy
+ * over, and searches made meanwhile wait for it.
+ *
+ * By default results are ranked fuzzy matches (see {@link LauncherSearchIndex#rank}), limited to the
+ * best {@link #RANKED_RESULT_LIMIT}. Setting the system property nexlaunch.fuzzySearch=false switches
+ * to plain case-insensitive substring search, which returns every hit in tree order.
+ */
+public class LauncherSearchService {
+
+    private static final int BATCH_NODES = 500; // Shown launchers per UI batch
+    private static final int SNAPSHOT_SLICE_ITEMS = 5_000; // Launchers copied per UI task while the index is built
+    public static final int RANKED_RESULT_LIMIT = 200;
+
+    /**
+     * Receives the results of one query, on the UI executor. Not called at all for superseded queries.
+     */
+    public interface ResultHandler {
+        /**
+         * @param ranks Maps (by identity) every launcher the batch shows, hits and the folders on the way to them,
+         *              to the position of the best hit at or below it; ordering by it puts the best results first.
+         *              Later batches only add launchers under top-level items that earlier batches did not show.
+         * @param first true for the first batch of the query (the previous results should be replaced).
+         */
+        void onBatch(Map<LauncherItem, Integer> ranks, boolean first);
+
+        /**
+         * Called after the last batch; a query without hits gets no batches, only this call.
+         * @param hitCount Number of matching items, which for ranked results can exceed the number shown.
+         */
+        void onComplete(int hitCount);
+    }
+
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "launcher-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Executor uiExecutor;
+    private final AtomicLong latestQuery = new AtomicLong();
+    private final boolean fuzzy = !"false".equalsIgnoreCase(System.getProperty("nexlaunch.fuzzySearch"));
+    private volatile boolean needsBuild = true; // Cleared by the UI thread when it hands over a snapshot to index
+
+    // Confined to the UI thread: the copy of the tree being taken for the next build
+    private LauncherSearchIndex.Snapshot pendingSnapshot;
+    private Supplier<List<LauncherItem>> pendingTopLevel;
+    private long snapshotRun; // Bumped when the copy starts over, so slices of an abandoned copy stop
+    private final List<Runnable> waitingForBuild = new ArrayList<>(); // Search tasks to submit once the copy is done
+
+    // Confined to the search thread
+    private final LauncherSearchIndex index = new LauncherSearchIndex(!fuzzy); // Trigram postings only serve substring search
+    private String lastQuery;
+    private List<LauncherItem> lastHits;
+    private LauncherSearchIndex.Ranking lastRanking;
+
+    public LauncherSearchService(Executor uiExecutor) {
+        this.uiExecutor = uiExecutor;
+    }
+
+    /**
+     * Starts a search for {@code text}, superseding any search still running.
+     * @param topLevel Supplies the live top-level list; only called (on the calling thread) when the index has to be built,
+     *                 and then walked there in slices.
+     */
+    public void search(String text, Supplier<List<LauncherItem>> topLevel, ResultHandler handler) {
+        long query = latestQuery.incrementAndGet();
+        submitAfterBuild(topLevel, () -> {
+            if (isSuperseded(query)) {
+                return;
+            }
+            runQuery(query, text, handler);
+        });
+    }
+
+    /**
+     * Ranks {@code text} on the shared index without superseding the interactive search, e.g. for a query from
+     * another process. Call from the UI thread, like {@link #search}.
+     * @return The best hits, at most {@code limit}, completed on the search thread.
+     */
+    public CompletableFuture<List<LauncherItem>> rank(String text, int limit, Supplier<List<LauncherItem>> topLevel) {
+        CompletableFuture<List<LauncherItem>> result = new CompletableFuture<>();
+        submitAfterBuild(topLevel, () -> {
+            if (!index.isBuilt()) {
+                result.complete(Collections.emptyList());
+            } else if (fuzzy) {
+                result.complete(index.rank(text, limit, System.currentTimeMillis(), null, () -> false).getTop());
+            } else {
+                List<LauncherItem> hits = index.search(text, null);
+                result.complete(new ArrayList<>(hits.subList(0, Math.min(limit, hits.size()))));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Stops delivering results for the current search, e.g. because the search box was cleared.
+     */
+    public void cancel() {
+        latestQuery.incrementAndGet();
+    }
+
+    /**
+     * Drops the index, e.g. after the launchers were reloaded; it is rebuilt on the next search.
+     */
+    public void invalidate() {
+        needsBuild = true;
+        restartSnapshot();
+        searchExecutor.execute(() -> {
+            index.invalidate();
+            forgetLastQuery();
+        });
+    }
+
+    /**
+     * Keeps the index in step with the launcher repository; register it as a {@link LauncherRepository.Listener}.
+     */
+    public void launcherChanged(LauncherRepository.Change change) {
+        switch (change.getType()) {
+            case ADDED:
+                itemAdded(change.getItem(), change.getParent());
+                break;
+            case REMOVED:
+                itemRemoved(change.getItem());
+                break;
+            case RENAMED:
+                itemRenamed(change.getItem());
+                break;
+            case RELOADED:
+                invalidate();
+                break;
+            default:
+                break; // Startup flags, schedules and launch stats are read at query time
+        }
+    }
+
+    // The changes below are copied on the UI thread that made them. While needsBuild is set they are left out:
+    // the snapshot taken for the next build already contains them (a copy in progress starts over to pick them up).
+
+    /** Call (on the UI thread) after {@code item} was added to {@code parent} (null for the top-level list). */
+    public void itemAdded(LauncherItem item, LauncherItem parent) {
+        if (needsBuild) {
+            restartSnapshot();
+            return;
+        }
+        LauncherSearchIndex.Snapshot added = LauncherSearchIndex.Snapshot.of(item, parent);
+        searchExecutor.execute(() -> {
+            index.add(added);
+            forgetLastQuery();
+        });
+    }
+
+    /** Call (on the UI thread) after {@code item} was removed from the tree. */
+    public void itemRemoved(LauncherItem item) {
+        if (needsBuild) {
+            restartSnapshot();
+            return;
+        }
+        LauncherSearchIndex.Snapshot removed = LauncherSearchIndex.Snapshot.of(item, null);
+        searchExecutor.execute(() -> {
+            index.remove(removed);
+            forgetLastQuery();
+        });
+    }
+
+    /** Call (on the UI thread) after {@code item} was renamed. */
+    public void itemRenamed(LauncherItem item) {
+        if (needsBuild) {
+            restartSnapshot();
+            return;
+        }
+        String name = item.getName();
+        searchExecutor.execute(() -> {
+            index.rename(item, name);
+            forgetLastQuery();
+        });
+    }
+
+    /**
+     * Runs {@code task} on the search thread, after the index was built if it has to be. On the UI thread: if the
+     * tree has to be copied first, the first slice is copied right here and the task waits for the rest.
+     */
+    private void submitAfterBuild(Supplier<List<LauncherItem>> topLevel, Runnable task) {
+        if (!needsBuild) {
+            searchExecutor.execute(task);
+            return;
+        }
+        waitingForBuild.add(task);
+        if (pendingSnapshot == null) {
+            pendingTopLevel = topLevel;
+            pendingSnapshot = LauncherSearchIndex.Snapshot.begin(topLevel.get());
+            copySnapshotSlice(++snapshotRun);
+        }
+    }
+
+    // Copies one slice of the pending snapshot and queues the next, or hands the finished copy to the search thread.
+    private void copySnapshotSlice(long run) {
+        if (run != snapshotRun || pendingSnapshot == null) {
+            return; // Started over, or already finished
+        }
+        if (!pendingSnapshot.copyMore(SNAPSHOT_SLICE_ITEMS)) {
+            uiExecutor.execute(() -> copySnapshotSlice(run));
+            return;
+        }
+        LauncherSearchIndex.Snapshot snapshot = pendingSnapshot;
+        pendingSnapshot = null;
+        pendingTopLevel = null;
+        needsBuild = false;
+        searchExecutor.execute(() -> buildIndex(snapshot));
+        for (Runnable task : waitingForBuild) {
+            searchExecutor.execute(task);
+        }
+        waitingForBuild.clear();
+    }
+
+    // The tree changed while it was being copied: slices already taken may be stale, so copy it again from the top.
+    private void restartSnapshot() {
+        if (pendingSnapshot == null) {
+            return;
+        }
+        pendingSnapshot = LauncherSearchIndex.Snapshot.begin(pendingTopLevel.get());
+        long run = ++snapshotRun;
+        uiExecutor.execute(() -> copySnapshotSlice(run));
+    }
+
+    private boolean isSuperseded(long query) {
+        return latestQuery.get() != query;
+    }
+
+    private void forgetLastQuery() {
+        lastQuery = null;
+        lastHits = null;
+        lastRanking = null;
+    }
+
+    private void buildIndex(LauncherSearchIndex.Snapshot snapshot) {
+        long start = System.nanoTime();
+        index.rebuild(snapshot);
+        System.out.println("LauncherSearchService: Indexed " + index.size() + " launchers in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms.");
+    }
+
+    private void runQuery(long query, String text, ResultHandler handler) {
+        if (!index.isBuilt()) {
+            postComplete(query, handler, 0);
+            return;
+        }
+        List<LauncherItem> hits;
+        int hitCount;
+        if (fuzzy) {
+            // The ranking remembers all of its matches, so a query that extends it only rescores those.
+            LauncherSearchIndex.Ranking ranking = index.rank(text, RANKED_RESULT_LIMIT, System.currentTimeMillis(),
+                    lastRanking, () -> isSuperseded(query));
+            if (ranking == null) {
+                return; // Superseded mid-scan
+            }
+            lastRanking = ranking;
+            hits = ranking.getTop();
+            hitCount = ranking.getMatchCount();
+        } else {
+            // A query that extends the previous one only needs to narrow down the previous hits.
+            String lowerText = text.toLowerCase(Locale.ROOT);
+            List<LauncherItem> previousHits = lastQuery != null && lowerText.contains(lastQuery) ? lastHits : null;
+            hits = index.search(text, previousHits);
+            lastQuery = lowerText;
+            lastHits = hits;
+            hitCount = hits.size();
+        }
+        if (isSuperseded(query)) {
+            return;
+        }
+
+        // Group the hits and their ancestor folders by top-level item, which is where batches are cut.
+        Map<LauncherItem, Map<LauncherItem, Integer>> groups = new IdentityHashMap<>();
+        List<LauncherItem> topLevelOrder = new ArrayList<>();
+        for (int rank = 0; rank < hits.size(); rank++) {
+            rankWithAncestors(hits.get(rank), rank, groups, topLevelOrder);
+        }
+
+        // Batches are cut between top-level results, so a folder is never split across two batches.
+        Map<LauncherItem, Integer> batch = new IdentityHashMap<>();
+        boolean first = true;
+        for (LauncherItem top : topLevelOrder) {
+            batch.putAll(groups.get(top));
+            if (batch.size() >= BATCH_NODES) {
+                if (isSuperseded(query)) {
+                    return;
+                }
+                postBatch(query, handler, batch, first);
+                first = false;
+                batch = new IdentityHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            postBatch(query, handler, batch, first);
+        }
+        postComplete(query, handler, hitCount);
+    }
+
+    /**
+     * Ranks {@code hit} and the folders above it, in the group of its top-level item. Hits come best first,
+     * so the first rank a folder gets is the best one below it and each top-level item is ordered by its best hit.
+     */
+    private void rankWithAncestors(LauncherItem hit, int rank, Map<LauncherItem, Map<LauncherItem, Integer>> groups,
+            List<LauncherItem> topLevelOrder) {
+        List<LauncherItem> chain = new ArrayList<>();
+        for (LauncherItem item = hit; item != null; item = index.parentOf(item)) {
+            chain.add(item);
+        }
+        LauncherItem top = chain.get(chain.size() - 1);
+        Map<LauncherItem, Integer> group = groups.get(top);
+        if (group == null) {
+            group = new IdentityHashMap<>();
+            groups.put(top, group);
+            topLevelOrder.add(top);
+        }
+        for (LauncherItem item : chain) {
+            group.putIfAbsent(item, rank);
+        }
+    }
+
+    private void postBatch(long query, ResultHandler handler, Map<LauncherItem, Integer> ranks, boolean first) {
+        uiExecutor.execute(() -> {
+            if (!isSuperseded(query)) {
+                handler.onBatch(ranks, first);
+            }
+        });
+    }
+
+    private void postComplete(long query, ResultHandler handler, int hitCount) {
+        uiExecutor.execute(() -> {
+            if (!isSuperseded(query)) {
+                handler.onComplete(hitCount);
+            }
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package application.core;
+
+import java.util.List;
+
+/**
+ * A decoded snapshot file: the top-level launchers plus the generation number it was written with.
+ */
+final class LauncherSnapshot {
+    final long generation;
+    final List<LauncherItem> launchers;
+
+    LauncherSnapshot(long generation, List<LauncherItem> launchers) {
+        this.generation = generation;
+        this.launchers = launchers;
+    }
+}
@@ -0,0 +1,83 @@
+package application.core;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * String sharing for very large launcher collections, on when {@code nexlaunch.compactMemory=true}.
+ *
+ * In compact mode each launcher keeps its URL or path as a shared prefix (the site or the directory, see
+ * {@link LauncherBinaryCodec#prefixOf}) plus its own rest, and names and URLs that are equal after loading
+ * share one String. That trades a concatenation in {@link LauncherItem#getUrlOrPath()} for memory, which
+ * only pays off with hundreds of thousands of launchers, so it is off by default.
+ */
+public final class LauncherStrings {
+
+    private static final boolean COMPACT = Boolean.getBoolean("nexlaunch.compactMemory");
+    // Beyond this many distinct prefixes, new ones are not shared (they are likely unique paths anyway).
+    private static final int MAX_SHARED_PREFIXES = Integer.getInteger("nexlaunch.maxSharedPrefixes", 65536);
+    private static final Map<String, String> PREFIXES = new ConcurrentHashMap<>();
+
+    private LauncherStrings() {
+    }
+
+    public static boolean isCompact() {
+        return COMPACT;
+    }
+
+    /**
+     * @return The shared copy of the prefix of {@code urlOrPath}, or null if it should be stored whole.
+     */
+    static String sharedPrefixOf(String urlOrPath) {
+        String prefix = LauncherBinaryCodec.prefixOf(urlOrPath);
+        if (prefix == null || prefix.length() == urlOrPath.length()) {
+            return null;
+        }
+        String shared = PREFIXES.get(prefix);
+        if (shared == null) {
+            if (PREFIXES.size() >= MAX_SHARED_PREFIXES) {
+                return null;
+            }
+            shared = PREFIXES.putIfAbsent(prefix, prefix);
+            if (shared == null) {
+                shared = prefix;
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Shares equal strings among {@code items} and their loaded descendants. Does nothing unless in compact mode.
+     * Called by the loaders on what they just created, so the pool only lives as long as one load.
+     */
+    public static void compact(List<LauncherItem> items) {
+        if (!COMPACT) {
+            return;
+        }
+        Pool pool = new Pool();
+        for (LauncherItem item : items) {
+            item.compact(pool);
+        }
+    }
+
+    /**
+     * Hands out one instance per distinct string. Not thread-safe.
+     */
+    public static final class Pool {
+        private final Map<String, String> strings = new HashMap<>();
+
+        Pool() {
+            // Created by compact for one pass over a tree
+        }
+
+        public String dedupe(String value) {
+            if (value == null) {
+                return null;
+            }
+            String shared = strings.putIfAbsent(value, value);
+            return shared == null ? value : shared;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package application.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Knows whether shortcut targets exist without ever touching the file system on the caller's thread,
+ * so a target on a slow or sleeping network mount cannot freeze the UI.
+ *
+ * {@link #statusOf} answers from a cache and queues a background check for paths it has not seen or
+ * whose entry is older than {@code nexlaunch.pathStatusTtlMillis} (default 30000). The parent directory
+ * of every checked path is watched with a {@link WatchService} (up to {@link #MAX_WATCHED_DIRECTORIES}),
+ * so creating, deleting or renaming a target refreshes its entry right away instead of when it expires.
+ * Listeners hear about paths whose status changed, on the UI executor.
+ *
+ * Web URLs are not paths and are always reported as {@link Status#EXISTS}.
+ */
+public class PathStatusService {
+
+    public enum Status {
+        UNKNOWN, EXISTS, MISSING
+    }
+
+    private static final long DEFAULT_TTL_MILLIS = 30_000;
+    private static final int CHECK_THREADS = 2; // A hung mount blocks one checker, not all of them
+    static final int MAX_WATCHED_DIRECTORIES = 256;
+
+    private static final class Entry {
+        final Status status;
+        final long checkedAt; // System.nanoTime()
+
+        Entry(Status status, long checkedAt) {
+            this.status = status;
+            this.checkedAt = checkedAt;
+        }
+    }
+
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Status>> inFlight = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor checkPool;
+    private final Executor uiExecutor;
+    private final long ttlNanos;
+    private final List<Consumer<String>> listeners = new ArrayList<>();
+
+    // Guarded by watchLock; directories are registered from checker threads and drained by the watch thread.
+    private final Object watchLock = new Object();
+    private final Map<Path, WatchKey> watchedDirectories = new HashMap<>();
+    private final Map<Path, Set<String>> pathsByDirectory = new HashMap<>();
+    private WatchService watchService; // Null until the first directory is watched, or if watching is unsupported
+    private boolean watchUnavailable;
+
+    public PathStatusService(Executor uiExecutor) {
+        this(uiExecutor, Long.getLong("nexlaunch.pathStatusTtlMillis", DEFAULT_TTL_MILLIS));
+    }
+
+    public PathStatusService(Executor uiExecutor, long ttlMillis) {
+        this.uiExecutor = uiExecutor;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttlMillis));
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.checkPool = new ThreadPoolExecutor(CHECK_THREADS, CHECK_THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "path-status-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.checkPool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Registers a callback for paths whose status changed. Call from the UI thread, before checks start.
+     */
+    public void addListener(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return The cached status of {@code pathOrUrl}, possibly stale, never blocking. A missing or expired
+     *         entry schedules a background check; until the first check finishes the status is UNKNOWN.
+     */
+    public Status statusOf(String pathOrUrl) {
+        if (pathOrUrl == null || pathOrUrl.trim().isEmpty()) {
+            return Status.MISSING;
+        }
+        if (DesktopLauncher.isWebUrl(pathOrUrl)) {
+            return Status.EXISTS;
+        }
+        Entry entry = cache.get(pathOrUrl);
+        if (entry == null || System.nanoTime() - entry.checkedAt > ttlNanos) {
+            check(pathOrUrl);
+        }
+        return entry != null ? entry.status : Status.UNKNOWN;
+    }
+
+    /**
+     * Checks {@code pathOrUrl} in the background, joining a check of the same path that is already running.
+     */
+    public CompletableFuture<Status> check(String pathOrUrl) {
+        if (pathOrUrl == null || pathOrUrl.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(Status.MISSING);
+        }
+        if (DesktopLauncher.isWebUrl(pathOrUrl)) {
+            return CompletableFuture.completedFuture(Status.EXISTS);
+        }
+        return inFlight.computeIfAbsent(pathOrUrl, path -> {
+            CompletableFuture<Status> result = CompletableFuture.supplyAsync(() -> runCheck(path), checkPool);
+            result.whenComplete((status, error) -> inFlight.remove(path));
+            return result;
+        });
+    }
+
+    /**
+     * Records what a launch found out, e.g. that the desktop could not find the target, without another check.
+     */
+    public void report(String pathOrUrl, Status status) {
+        if (pathOrUrl != null && !DesktopLauncher.isWebUrl(pathOrUrl)) {
+            update(pathOrUrl, status);
+        }
+    }
+
+    private Status runCheck(String pathOrUrl) {
+        Status status = new File(pathOrUrl).exists() ? Status.EXISTS : Status.MISSING;
+        update(pathOrUrl, status);
+        watchParentOf(pathOrUrl);
+        return status;
+    }
+
+    private void update(String pathOrUrl, Status status) {
+        Entry previous = cache.put(pathOrUrl, new Entry(status, System.nanoTime()));
+        if (previous != null && previous.status == status) {
+            return;
+        }
+        uiExecutor.execute(() -> {
+            for (Consumer<String> listener : listeners) {
+                listener.accept(pathOrUrl);
+            }
+        });
+    }
+
+    private void watchParentOf(String pathOrUrl) {
+        Path parent;
+        try {
+            parent = Paths.get(pathOrUrl).toAbsolutePath().getParent();
+        } catch (InvalidPathException e) {
+            return;
+        }
+        if (parent == null) {
+            return;
+        }
+        synchronized (watchLock) {
+            Set<String> paths = pathsByDirectory.get(parent);
+            if (paths != null) {
+                paths.add(pathOrUrl);
+                return;
+            }
+            if (watchUnavailable || watchedDirectories.size() >= MAX_WATCHED_DIRECTORIES) {
+                return; // Such paths are only refreshed when their entry expires
+            }
+        }
+        if (!parent.toFile().isDirectory()) { // Outside the lock: on a slow mount this can block for a while
+            return;
+        }
+        synchronized (watchLock) {
+            Set<String> paths = pathsByDirectory.get(parent);
+            if (paths != null) { // Registered by another checker in the meantime
+                paths.add(pathOrUrl);
+                return;
+            }
+            try {
+                if (watchService == null) {
+                    watchService = FileSystems.getDefault().newWatchService();
+                    Thread watcher = new Thread(this::drainWatchEvents, "path-status-watch");
+                    watcher.setDaemon(true);
+                    watcher.start();
+                }
+                WatchKey key = parent.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                watchedDirectories.put(parent, key);
+                paths = new HashSet<>();
+                paths.add(pathOrUrl);
+                pathsByDirectory.put(parent, paths);
+            } catch (IOException | UnsupportedOperationException e) {
+                System.err.println("PathStatusService: Cannot watch " + parent + ", relying on expiry: " + e.getMessage());
+                if (watchService == null) {
+                    watchUnavailable = true;
+                }
+            }
+        }
+    }
+
+    private void drainWatchEvents() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = (Path) key.watchable();
+                List<String> toRecheck = new ArrayList<>();
+                synchronized (watchLock) {
+                    Set<String> paths = pathsByDirectory.getOrDefault(directory, Set.of());
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            toRecheck.addAll(paths); // Events were lost; recheck everything in the directory
+                            continue;
+                        }
+                        Path changed = directory.resolve((Path) event.context());
+                        for (String path : paths) {
+                            if (Paths.get(path).toAbsolutePath().equals(changed)) {
+                                toRecheck.add(path);
+                            }
+                        }
+                    }
+                    if (!key.reset()) {
+                        // The directory itself went away; forget it so a later check can watch it again.
+                        watchedDirectories.remove(directory);
+                        Set<String> orphaned = pathsByDirectory.remove(directory);
+                        if (orphaned != null) {
+                            toRecheck.addAll(orphaned);
+                        }
+                    }
+                }
+                for (String path : new HashSet<>(toRecheck)) {
+                    check(path);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Service shut down
+        }
+    }
+}
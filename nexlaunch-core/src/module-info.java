@@ -0,0 +1,11 @@
+/**
+ * The launcher engine without a user interface: model, repository, persistence, search and launching.
+ * Needs no JavaFX, so it can run in a CLI or a benchmark without starting a toolkit.
+ */
+module nexlaunch.core {
+
+    requires java.desktop; // Only java.awt.Desktop, to hand URLs and files to the OS
+    requires transitive com.google.gson; // The JSON adapter and journal take Gson types
+
+    exports application.core;
+}
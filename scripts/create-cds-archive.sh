@@ -0,0 +1,47 @@
+#!/bin/sh
+# Records class data sharing (AppCDS) archives of the classes NexLaunch loads while starting, so later
+# starts map them from the archive instead of loading, verifying and linking them again.
+#
+# Usage, from the project directory once Eclipse has built bin/ and nexlaunch-core/bin/:
+#   scripts/create-cds-archive.sh <JavaFX SDK lib directory> <gson-2.10.1.jar>
+#
+# Writes build/cds/: the two modules as JARs (CDS only archives classes loaded from JARs), nexlaunch.jsa
+# for the window and nexlaunch-headless.jsa for HeadlessLauncher. The archives are only used with exactly
+# the module path they were recorded with, so start NexLaunch with the command printed at the end.
+# Needs JDK 13 or later; re-run it after every build.
+set -e
+
+FX_LIB=${1:?Usage: $0 <JavaFX SDK lib directory> <gson jar>}
+GSON_JAR=${2:?Usage: $0 <JavaFX SDK lib directory> <gson jar>}
+OUT=build/cds
+MODULE_PATH="$OUT/nexlaunch.jar:$OUT/nexlaunch-core.jar:$GSON_JAR:$FX_LIB"
+CORE_MODULE_PATH="$OUT/nexlaunch-core.jar:$GSON_JAR"
+
+mkdir -p "$OUT"
+rm -f "$OUT/nexlaunch.jar" "$OUT/nexlaunch-core.jar"
+jar --create --file "$OUT/nexlaunch-core.jar" -C nexlaunch-core/bin .
+jar --create --file "$OUT/nexlaunch.jar" -C bin .
+
+# The training runs use a scratch home with a small data file, so they never touch the real launchers
+# and do not talk to a NexLaunch that is already running; nothing is launched.
+TRAINING_HOME=$(mktemp -d)
+trap 'rm -rf "$TRAINING_HOME"' EXIT
+cat > "$TRAINING_HOME/launchers_data.json" <<'JSON'
+[
+  {"name": "Docs", "urlOrPath": "https://docs.oracle.com/javase/17/docs/api/", "isFolder": false, "isStartupLauncher": false, "children": []},
+  {"name": "Tools", "isFolder": true, "isStartupLauncher": false, "children": [
+    {"name": "Editor", "urlOrPath": "/usr/bin/true", "isFolder": false, "isStartupLauncher": false, "children": []}
+  ]}
+]
+JSON
+
+java -XX:ArchiveClassesAtExit="$OUT/nexlaunch-headless.jsa" -Duser.home="$TRAINING_HOME" \
+     -p "$CORE_MODULE_PATH" -m nexlaunch.core/application.core.HeadlessLauncher --search docs
+java -XX:ArchiveClassesAtExit="$OUT/nexlaunch.jsa" -Duser.home="$TRAINING_HOME" \
+     -p "$MODULE_PATH" -m NexLaunch/application.Main --exit-after-startup
+
+echo
+echo "Start NexLaunch with:"
+echo "  java -XX:SharedArchiveFile=$OUT/nexlaunch.jsa -p $MODULE_PATH -m NexLaunch/application.Main"
+echo "and launch from scripts with:"
+echo "  java -XX:SharedArchiveFile=$OUT/nexlaunch-headless.jsa -p $CORE_MODULE_PATH -m nexlaunch.core/application.core.HeadlessLauncher --launch-startup"
@@ -5,10 +5,26 @@ import java.util.ResourceBundle;
 import java.util.Optional;
 import java.util.ArrayList;
 import java.util.List;
-import java.io.File;
+import java.util.Map;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
+import application.core.LaunchPlan;
+import application.core.LaunchSummary;
+import application.core.LauncherEngine;
+import application.core.LauncherItem;
+import application.core.LauncherRepository;
+import application.core.LauncherSearchService;
+import application.core.PathStatusService;
+
+import javafx.application.Platform;
+
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -26,10 +42,6 @@ import javafx.scene.control.TextField;
 import javafx.scene.control.ListView;
 import javafx.scene.control.ListCell;
 
-import java.awt.Desktop;
-import java.net.URI;
-import java.net.URISyntaxException;
-
 import javafx.stage.Popup;
 import javafx.geometry.Point2D;
 import javafx.geometry.Pos;
@@ -42,6 +54,11 @@ import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.MenuItem;
+import javafx.scene.control.TextInputDialog;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.SeparatorMenuItem;
+import javafx.scene.control.Tooltip;
+import javafx.css.PseudoClass;
 
 public class Controller implements Initializable {
     @FXML
@@ -58,21 +75,39 @@ public class Controller implements Initializable {
     @FXML
     private Button searchButton;
 
-    private Image folderIcon;
-    private Image fileIcon;
-    private Image arrowDownIcon;
-    private Image arrowUpIcon;
-    private Image startupIcon;
+    private LauncherIcons icons;
+    private final IconCache iconCache = new IconCache(Platform::runLater); // Favicons and system icons, loaded off the FX thread
 
     private Popup addOptionsPopup;
     private VBox addOptionsPopupContent;
 
-    private LauncherDataService dataService;
     // Removed: private StartupManager startupManager; // No longer needed
     // Removed: private boolean isBackgroundMode = false; // No longer needed
 
-    private List<LauncherItem> allOriginalTopLevelLaunchers = new ArrayList<>();
-    private List<LauncherItem> allOriginalStartupLaunchers = new ArrayList<>(); // Items explicitly marked as startup
+    // Loading, saving, searching and launching; this class only shows the engine's state and forwards the user's edits
+    private final LauncherEngine engine = new LauncherEngine(Platform::runLater);
+    // Every edit of the launchers goes through the repository; the views below follow its change events
+    private final LauncherRepository repository = engine.getRepository();
+    private final List<LauncherItem> allOriginalTopLevelLaunchers = engine.getLaunchers(); // Live, read-only
+    // Shortcut target existence, checked in the background and shown in the trees
+    private final PathStatusService pathStatusService = engine.getPathStatusService();
+    // Indexes on the first search, then follows the repository's changes
+    private final LauncherSearchService searchService = engine.getSearchService();
+    // Launchers shown by the current search, mapped to their rank (see LauncherSearchService.ResultHandler)
+    private final Map<LauncherItem, Integer> searchRanks = new IdentityHashMap<>();
+    private final List<LauncherItem> allOriginalStartupLaunchers = engine.getStartupLaunchers(); // Top-level startup launchers, in list order
+    // Stable TreeItems for the launcher and startup trees, updated in place when the model changes
+    private final LauncherTreeReconciler mainTree = new LauncherTreeReconciler("InvisibleRoot", () -> allOriginalTopLevelLaunchers, null);
+    private final LauncherTreeReconciler startupTree = new LauncherTreeReconciler("StartupLaunchersRoot",
+            () -> LaunchPlan.inLaunchOrder(allOriginalStartupLaunchers), treeItem -> treeItem.setExpanded(true));
+    // Search results: the launcher tree filtered down to the hits and their folders, best hits first
+    private final LauncherTreeReconciler searchTree = new LauncherTreeReconciler("InvisibleRoot", () -> allOriginalTopLevelLaunchers,
+            treeItem -> treeItem.setExpanded(true), searchRanks::containsKey,
+            Comparator.comparingInt(item -> searchRanks.getOrDefault(item, Integer.MAX_VALUE)));
+    private final AtomicBoolean treeRefreshQueued = new AtomicBoolean();
+    private static final PseudoClass MISSING_TARGET = PseudoClass.getPseudoClass("missing-target");
+
+    private static final int MAX_REPORTED_LAUNCH_FAILURES = 10;
 
     public Controller() {
         // Default constructor for FXML loading
@@ -84,50 +119,24 @@ public class Controller implements Initializable {
     public void initialize(URL arg0, ResourceBundle arg1) {
         // Removed: if (isBackgroundMode) { ... return; } block
 
+        StartupProfiler.mark("fxml");
         System.out.println("Controller: Initializing application.");
 
-        // --- Robust Icon Loading ---
-        try {
-            folderIcon = new Image(Controller.class.getResourceAsStream("/foldericon.png"));
-        } catch (NullPointerException e) {
-            System.err.println("Warning: foldericon.png not found. Using a default placeholder.");
-            folderIcon = new Image("data:image/png;base64,iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAQAAAC1HAwCAAAAC0lEQVR42mNkYAAAAAYAAjCB0C8AAAAASUVORK5CYII=");
-        }
+        icons = new LauncherIcons(); // Loaded once, decoded in the background; cells share the images
 
-        try {
-            fileIcon = new Image(Controller.class.getResourceAsStream("/fileicon.png"));
-        } catch (NullPointerException e) {
-            System.err.println("Warning: fileicon.png not found. Using folderIcon as fallback for files.");
-            fileIcon = folderIcon; // Fallback to folder icon or another generic icon
-        }
-
-        try {
-            startupIcon = new Image(Controller.class.getResourceAsStream("/startupicon.png"));
-        } catch (NullPointerException e) {
-            System.err.println("Warning: startupicon.png not found. Using folderIcon as fallback for startup items.");
-            startupIcon = folderIcon; // Fallback to folder icon or another generic icon
-        }
-
-        try {
-            arrowDownIcon = new Image(Controller.class.getResourceAsStream("/arrow_down.png"));
-        } catch (NullPointerException e) {
-            System.err.println("Warning: arrow_down.png not found.");
-            arrowDownIcon = null;
-        }
 
-        try {
-            arrowUpIcon = new Image(Controller.class.getResourceAsStream("/arrow_up.png"));
-        } catch (NullPointerException e) {
-            System.err.println("Warning: arrow_up.png not found.");
-            arrowUpIcon = null;
-        }
-        // --- End Robust Icon Loading ---
+        pathStatusService.addListener(path -> refreshTreesLater());
+        iconCache.addListener(item -> refreshTreesLater());
 
+        // The engine's own listeners run first, so the startup set is up to date when the trees show it.
+        repository.addListener(this::updateTrees);
 
-        dataService = new LauncherDataService();
+        engine.getDataService().setSaveErrorHandler(e -> Platform.runLater(() ->
+                showAlert(AlertType.ERROR, "Save Error", "Failed to save launcher data: " + e.getMessage())));
         // Removed: startupManager = new StartupManager(); // No longer needed
 
         loadLaunchers(); // This will now populate allOriginalTopLevelLaunchers AND allOriginalStartupLaunchers
+        StartupProfiler.mark("loadLaunchers");
 
         AllLaunchersTreeView.setShowRoot(false);
         AllLaunchersTreeView.setCellFactory(tv -> new CustomStringTreeCell(this));
@@ -140,65 +149,60 @@ public class Controller implements Initializable {
             System.err.println("Warning: StartupLaunchersTreeView is null. Check FXML fx:id.");
         }
 
-        createAddOptionsPopup();
-
         if (searchBox != null) {
             searchBox.textProperty().addListener((obs, oldText, newText) -> {
-                if (newText.isEmpty() && !oldText.isEmpty()) {
+                String searchText = newText.trim();
+                if (!searchText.isEmpty()) {
+                    startSearch(searchText, false);
+                } else if (!oldText.trim().isEmpty()) {
+                    searchService.cancel();
                     restoreAllLaunchers();
                 }
             });
         }
 
-        // --- NEW BEHAVIOR: Launch startup items immediately after app starts normally ---
-        System.out.println("Controller: App initialized. Launching startup items now.");
-        performAutoStartupLaunch(); // New method for immediate launch
+        // The add menu's popup is built the first time it is opened, and Main starts the startup launches once the window is showing.
+        System.out.println("Controller: App initialized.");
+        StartupProfiler.mark("controller");
     }
 
     // NEW METHOD (Renamed from performBackgroundStartupLaunch): For launching startup items when the application itself starts
-    private void performAutoStartupLaunch() {
-        loadLaunchers(); // Ensure data is loaded to get allOriginalStartupLaunchers
-
+    // Runs as a staggered LaunchPlan off the FX thread, so the window shows right away; initialize() has already loaded the launchers.
+    public void performAutoStartupLaunch() {
         if (allOriginalStartupLaunchers.isEmpty()) {
             System.out.println("Controller: No startup launchers found to auto-launch on app start.");
         } else {
             System.out.println("Controller: Auto-launching " + allOriginalStartupLaunchers.size() + " top-level startup items.");
-            for (LauncherItem item : allOriginalStartupLaunchers) {
-                launchRecursive(item); // Use recursive launcher for folders
-            }
+            engine.startStartupPlan(new LaunchPlan.Listener() {
+                @Override
+                public void onStepChanged(LaunchPlan.Step step) {
+                    refreshTreesLater();
+                }
+
+                @Override
+                public void onFinished(LaunchSummary summary) {
+                    refreshTreesLater();
+                    Platform.runLater(() -> reportLaunchSummary("Startup Launch", summary));
+                }
+            });
         }
         // Removed: javafx.application.Platform.exit(); as the app is now always in GUI mode
     }
 
-    // Existing: Recursive launch method
-    private void launchRecursive(LauncherItem item) {
-        if (item == null) return;
-
-        if (item.isFolder()) {
-            System.out.println("Controller: Launching items inside folder: " + item.getName());
-            if (item.getChildren() != null) {
-                for (LauncherItem child : item.getChildren()) {
-                    launchRecursive(child); // Recurse for children
-                }
-            }
-        } else { // It's a non-folder item (URL or shortcut)
-            if (item.getUrlOrPath() != null && !item.getUrlOrPath().trim().isEmpty()) {
-                System.out.println("Controller: Launching item: " + item.getName() + " (" + item.getUrlOrPath() + ")");
-                launchItemPath(item.getUrlOrPath());
-            } else {
-                System.out.println("Controller: Skipping item with no launch path/URL: " + item.getName());
-            }
+    /**
+     * Shows one alert for everything that failed in a batch of launches.
+     */
+    private void reportLaunchSummary(String title, LaunchSummary summary) {
+        if (summary.hasFailures()) {
+            showAlert(AlertType.WARNING, title, summary.describe(MAX_REPORTED_LAUNCH_FAILURES));
         }
     }
 
-
     private void loadLaunchers() {
         System.out.println("Controller: Attempting to load launchers...");
-        List<LauncherItem> loadedItems = new ArrayList<>();
-
         try {
-            loadedItems = dataService.loadLaunchers();
-            System.out.println("Controller: Successfully loaded " + loadedItems.size() + " top-level launcher items.");
+            engine.load(); // Also populates allOriginalStartupLaunchers; empty if loading failed
+            System.out.println("Controller: Successfully loaded " + allOriginalTopLevelLaunchers.size() + " top-level launcher items.");
         } catch (IOException e) {
             System.err.println("Controller: !!! ERROR reading launchers data: " + e.getMessage());
             e.printStackTrace();
@@ -209,217 +213,228 @@ public class Controller implements Initializable {
             showAlert(AlertType.ERROR, "Load Error", "Failed to parse launcher data (file might be corrupted): " + e.getMessage() + "\nStarting with an empty launcher list.");
         }
 
-        allOriginalTopLevelLaunchers.clear();
-        allOriginalTopLevelLaunchers.addAll(loadedItems);
-
-        // Populate the separate list for startup launchers
-        allOriginalStartupLaunchers.clear();
-        for (LauncherItem item : allOriginalTopLevelLaunchers) {
-            if (item.isStartupLauncher()) {
-                allOriginalStartupLaunchers.add(item);
-            }
-        }
-
-        TreeItem<LauncherItem> rootItem = new TreeItem<>(new LauncherItem("InvisibleRoot"));
-
-        if (!allOriginalTopLevelLaunchers.isEmpty()) {
-            for (LauncherItem item : allOriginalTopLevelLaunchers) {
-                rootItem.getChildren().add(convertLauncherItemToTreeItem(item));
-            }
-        } else {
+        if (allOriginalTopLevelLaunchers.isEmpty()) {
             System.out.println("Controller: No existing launcher data found or data was empty/corrupted. Starting with an empty launcher list.");
         }
-
-        AllLaunchersTreeView.setRoot(rootItem);
-        rootItem.setExpanded(true);
     }
 
-    private void setupStartupLaunchersTree() {
-        TreeItem<LauncherItem> startupRoot = new TreeItem<>(new LauncherItem("StartupLaunchersRoot"));
-        startupRoot.setExpanded(true);
-
-        if (!allOriginalStartupLaunchers.isEmpty()) {
-            for (LauncherItem item : allOriginalStartupLaunchers) {
-                startupRoot.getChildren().add(deepCopyTreeItem(convertLauncherItemToTreeItem(item)));
-            }
-        } else {
-            System.out.println("Controller: No startup launchers found to display.");
+    // Applies a repository change to the launcher, startup and search trees.
+    private void updateTrees(LauncherRepository.Change change) {
+        switch (change.getType()) {
+            case RELOADED:
+                // The loaded launchers are all new objects, so no existing TreeItem can be reused.
+                mainTree.reset();
+                startupTree.reset();
+                showMainTree();
+                break;
+            case ADDED:
+            case REMOVED:
+                launcherChildrenChanged(change.getParent());
+                break;
+            case STARTUP_CHANGED:
+            case SCHEDULE_CHANGED:
+                setupStartupLaunchersTree();
+                refreshTrees(); // Icons and schedule labels
+                break;
+            case RENAMED:
+                refreshTrees();
+                break;
+            default:
+                break;
         }
-        StartupLaunchersTreeView.setRoot(startupRoot);
     }
 
-    private void restoreAllLaunchers() {
-        TreeItem<LauncherItem> rootItem = new TreeItem<>(new LauncherItem("InvisibleRoot"));
-        for (LauncherItem item : allOriginalTopLevelLaunchers) {
-            rootItem.getChildren().add(convertLauncherItemToTreeItem(item));
+    private void refreshTrees() {
+        AllLaunchersTreeView.refresh();
+        if (StartupLaunchersTreeView != null) {
+            StartupLaunchersTreeView.refresh();
         }
-        AllLaunchersTreeView.setRoot(rootItem);
-        rootItem.setExpanded(true);
-        setupStartupLaunchersTree();
     }
 
-    @FXML
-    public void searchLaunchers(ActionEvent event) {
-        String searchText = searchBox.getText().trim();
-        if (searchText.isEmpty()) {
-            restoreAllLaunchers();
-            return;
+    // Shows the startup launchers in the order the startup plan launches them.
+    // They share their LauncherItems with the main tree, so edits made in either tree reach the master list.
+    private void setupStartupLaunchersTree() {
+        if (allOriginalStartupLaunchers.isEmpty()) {
+            System.out.println("Controller: No startup launchers found to display.");
         }
-
-        TreeItem<LauncherItem> rootItem = new TreeItem<>(new LauncherItem("InvisibleRoot"));
-        List<LauncherItem> matchedItems = findMatchingLaunchers(searchText, allOriginalTopLevelLaunchers);
-
-        if (matchedItems.isEmpty()) {
-            showAlert(AlertType.INFORMATION, "No Results", "No launchers found matching '" + searchText + "'.");
-        } else {
-            for (LauncherItem item : matchedItems) {
-                rootItem.getChildren().add(deepCopyTreeItem(convertLauncherItemToTreeItem(item)));
-            }
+        startupTree.childrenChanged(null);
+        if (StartupLaunchersTreeView != null && StartupLaunchersTreeView.getRoot() != startupTree.getRoot()) {
+            StartupLaunchersTreeView.setRoot(startupTree.getRoot());
         }
-        AllLaunchersTreeView.setRoot(rootItem);
-        rootItem.setExpanded(true);
-        expandAllTreeItems(rootItem);
     }
 
-    private List<LauncherItem> findMatchingLaunchers(String searchText, List<LauncherItem> items) {
-        List<LauncherItem> matched = new ArrayList<>();
-        String lowerCaseSearchText = searchText.toLowerCase();
-
-        for (LauncherItem item : items) {
-            boolean selfMatches = item.getName().toLowerCase().contains(lowerCaseSearchText);
+    // Brings all trees in line after the children of {@code folder} (null for the top level) changed in the model.
+    private void launcherChildrenChanged(LauncherItem folder) {
+        mainTree.childrenChanged(folder);
+        startupTree.childrenChanged(folder);
+        searchTree.childrenChanged(folder);
+    }
 
-            if (item.isFolder()) {
-                List<LauncherItem> matchedChildren = findMatchingLaunchers(searchText, item.getChildren());
-                if (selfMatches || !matchedChildren.isEmpty()) {
-                    LauncherItem folderCopy = new LauncherItem(item.getName(), null, item.isStartupLauncher());
-                    if (!matchedChildren.isEmpty()) {
-                        for (LauncherItem child : matchedChildren) {
-                            folderCopy.addChild(child);
-                        }
-                    }
-                    if(selfMatches && !matched.contains(folderCopy)) {
-                        matched.add(folderCopy);
-                    } else if (!matchedChildren.isEmpty() && !matched.contains(folderCopy)) {
-                        matched.add(folderCopy);
-                    }
+    // Plan progress and path checks arrive from background threads, often many at once; one refresh covers them all.
+    private void refreshTreesLater() {
+        if (treeRefreshQueued.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                treeRefreshQueued.set(false);
+                AllLaunchersTreeView.refresh();
+                if (StartupLaunchersTreeView != null) {
+                    StartupLaunchersTreeView.refresh();
                 }
-            } else {
-                if (selfMatches) {
-                    matched.add(new LauncherItem(item.getName(), item.getUrlOrPath(), item.isStartupLauncher()));
-                }
-            }
+            });
         }
-        return matched;
     }
 
-    private void expandAllTreeItems(TreeItem<LauncherItem> item) {
-        if (item != null) {
-            item.setExpanded(true);
-            for (TreeItem<LauncherItem> child : item.getChildren()) {
-                expandAllTreeItems(child);
-            }
+    private void cancelStartupPlan() {
+        if (engine.cancelStartupPlan()) {
+            System.out.println("Controller: Startup launch plan cancelled.");
         }
     }
 
-    private TreeItem<LauncherItem> deepCopyTreeItem(TreeItem<LauncherItem> original) {
-        if (original == null) {
-            return null;
-        }
+    /**
+     * Edits the startup plan settings of a startup launcher. They take effect the next time the app starts.
+     */
+    private void showStartupScheduleDialog(LauncherItem startupLauncher) {
+        javafx.stage.Stage dialogStage = new javafx.stage.Stage();
+        dialogStage.initModality(Modality.APPLICATION_MODAL);
+        dialogStage.initOwner(AllLaunchersTreeView.getScene().getWindow());
+        dialogStage.setTitle("Startup Schedule for '" + startupLauncher.getName() + "'");
+        dialogStage.setResizable(false);
 
-        LauncherItem originalValue = original.getValue();
-        LauncherItem copiedValue;
-        if (originalValue.isFolder()) {
-            copiedValue = new LauncherItem(originalValue.getName(), null, originalValue.isStartupLauncher());
-        } else {
-            copiedValue = new LauncherItem(originalValue.getName(), originalValue.getUrlOrPath(), originalValue.isStartupLauncher());
-        }
+        TextField priorityField = new TextField(String.valueOf(startupLauncher.getStartupPriority()));
+        priorityField.setPromptText("Higher launches first (e.g., '10')");
+        priorityField.getStyleClass().add("text-field-dark");
+
+        TextField delayField = new TextField(String.valueOf(startupLauncher.getStartupDelayMillis()));
+        delayField.setPromptText("Milliseconds after startup (e.g., '5000')");
+        delayField.getStyleClass().add("text-field-dark");
+
+        CheckBox afterPreviousBox = new CheckBox("Wait until earlier startup launches have finished");
+        afterPreviousBox.setSelected(startupLauncher.isStartupAfterPrevious());
+
+        Button saveBtn = new Button("Save");
+        saveBtn.getStyleClass().add("dialog-button");
+        saveBtn.setOnAction(e -> {
+            int priority;
+            long delayMillis;
+            try {
+                priority = Integer.parseInt(priorityField.getText().trim());
+                delayMillis = Long.parseLong(delayField.getText().trim());
+            } catch (NumberFormatException ex) {
+                showAlert(AlertType.WARNING, "Input Error", "Priority and delay must be whole numbers.");
+                return;
+            }
+            if (delayMillis < 0) {
+                showAlert(AlertType.WARNING, "Input Error", "Delay cannot be negative.");
+                return;
+            }
+            repository.setStartupSchedule(startupLauncher, priority, delayMillis, afterPreviousBox.isSelected());
+            dialogStage.close();
+        });
 
-        ImageView iconView = getIconForLauncherItem(copiedValue);
+        Button cancelBtn = new Button("Cancel");
+        cancelBtn.getStyleClass().add("dialog-button");
+        cancelBtn.setOnAction(e -> dialogStage.close());
 
-        TreeItem<LauncherItem> copiedTreeItem = new TreeItem<>(copiedValue, iconView);
-        copiedTreeItem.setExpanded(original.isExpanded());
+        HBox buttonBar = new HBox(10, saveBtn, cancelBtn);
+        buttonBar.setAlignment(Pos.CENTER_RIGHT);
 
-        for (TreeItem<LauncherItem> child : original.getChildren()) {
-            copiedTreeItem.getChildren().add(deepCopyTreeItem(child));
-        }
+        VBox dialogContent = new VBox(10,
+                new Label("Priority:"),
+                priorityField,
+                new Label("Delay (ms):"),
+                delayField,
+                afterPreviousBox,
+                buttonBar);
+        dialogContent.setPadding(new javafx.geometry.Insets(20));
+        dialogContent.getStyleClass().add("dialog-background");
 
-        return copiedTreeItem;
+        Scene dialogScene = new Scene(dialogContent);
+        dialogScene.getStylesheets().add(getClass().getResource("application.css").toExternalForm());
+        dialogStage.setScene(dialogScene);
+        dialogStage.showAndWait();
     }
 
-
-    public void saveLaunchers() {
-        System.out.println("Controller: saveLaunchers() called.");
-
-        if (allOriginalTopLevelLaunchers.isEmpty()) {
-            dataService.deleteDataFile();
-            System.out.println("Controller: No launchers to save. Data file handled by service.");
-            return;
-        }
-
-        try {
-            dataService.saveLaunchers(allOriginalTopLevelLaunchers);
-            System.out.println("Controller: Launchers data successfully saved via service.");
-        } catch (IOException e) {
-            System.err.println("Controller: !!! ERROR writing launchers data: " + e.getMessage());
-            e.printStackTrace();
-            showAlert(AlertType.ERROR, "Save Error", "Failed to save launcher data: " + e.getMessage());
-        }
+    // The launcher tree is kept up to date while search results are shown, so leaving a search
+    // only puts its root back, with expansion and selection as they were.
+    private void restoreAllLaunchers() {
+        showMainTree();
     }
 
-    private LauncherItem convertTreeItemToLauncherItem(TreeItem<LauncherItem> treeItem) {
-        LauncherItem launcherItem = treeItem.getValue();
-        LauncherItem serializableItem;
-
-        if (launcherItem.isFolder()) {
-            serializableItem = new LauncherItem(launcherItem.getName(), null, launcherItem.isStartupLauncher());
-        } else {
-            serializableItem = new LauncherItem(launcherItem.getName(), launcherItem.getUrlOrPath(), launcherItem.isStartupLauncher());
+    private void showMainTree() {
+        searchRanks.clear();
+        searchTree.reset(); // Lets go of the result TreeItems
+        if (AllLaunchersTreeView.getRoot() != mainTree.getRoot()) {
+            AllLaunchersTreeView.setRoot(mainTree.getRoot());
         }
+    }
 
-        if (launcherItem.isFolder()) {
-            for (TreeItem<LauncherItem> childTreeItem : treeItem.getChildren()) {
-                serializableItem.addChild(convertTreeItemToLauncherItem(childTreeItem));
-            }
+    @FXML
+    public void searchLaunchers(ActionEvent event) {
+        String searchText = searchBox.getText().trim();
+        if (searchText.isEmpty()) {
+            searchService.cancel();
+            restoreAllLaunchers();
+            return;
         }
-        return serializableItem;
+        startSearch(searchText, true);
     }
 
-    private TreeItem<LauncherItem> convertLauncherItemToTreeItem(LauncherItem launcherItem) {
-        ImageView iconView = getIconForLauncherItem(launcherItem);
-        TreeItem<LauncherItem> treeItem = new TreeItem<>(launcherItem, iconView);
-        treeItem.setExpanded(true);
+    /**
+     * Runs a search in the background and shows its results as they arrive, replacing any search still running.
+     * @param reportNoResults Whether to tell the user when nothing matched (for an explicit search, not while typing).
+     */
+    private void startSearch(String searchText, boolean reportNoResults) {
+        searchService.search(searchText, () -> allOriginalTopLevelLaunchers, new LauncherSearchService.ResultHandler() {
+            @Override
+            public void onBatch(Map<LauncherItem, Integer> ranks, boolean first) {
+                if (first) {
+                    showSearchResults(ranks);
+                } else {
+                    // Later batches only add new top-level results; their folders are built when shown.
+                    searchRanks.putAll(ranks);
+                    searchTree.filterChanged();
+                    searchTree.childrenChanged(null);
+                }
+            }
 
-        if (launcherItem.isFolder()) {
-            for (LauncherItem childItem : launcherItem.getChildren()) {
-                treeItem.getChildren().add(convertLauncherItemToTreeItem(childItem));
+            @Override
+            public void onComplete(int hitCount) {
+                if (hitCount == 0) {
+                    showSearchResults(Collections.emptyMap());
+                    if (reportNoResults) {
+                        showAlert(AlertType.INFORMATION, "No Results", "No launchers found matching '" + searchText + "'.");
+                    }
+                }
             }
-        }
-        return treeItem;
+        });
     }
 
-    private ImageView getIconForLauncherItem(LauncherItem item) {
-        Image imageToUse = null;
-
-        if (item.isStartupLauncher() && startupIcon != null) {
-            imageToUse = startupIcon;
-        } else if (item.isFolder()) {
-            imageToUse = folderIcon;
-        } else {
-            imageToUse = fileIcon;
-        }
-
-        if (imageToUse == null) {
-            System.err.println("CRITICAL: No suitable icon found for item: " + item.getName() + ". Using folderIcon as last resort.");
-            imageToUse = folderIcon;
+    // Replaces the shown search results. They are the live launchers, so edits made in them reach the master list.
+    private void showSearchResults(Map<LauncherItem, Integer> ranks) {
+        searchRanks.clear();
+        searchRanks.putAll(ranks);
+        searchTree.reset();
+        if (AllLaunchersTreeView.getRoot() != searchTree.getRoot()) {
+            AllLaunchersTreeView.setRoot(searchTree.getRoot());
         }
+    }
 
-        ImageView iconView = new ImageView(imageToUse);
-        iconView.setFitWidth(24);
-        iconView.setFitHeight(20);
+    // For the single-instance daemon, which serves other invocations from this window's launchers.
+    public LauncherEngine getEngine() {
+        return engine;
+    }
 
-        return iconView;
+    public void saveLaunchers() {
+        System.out.println("Controller: saveLaunchers() called.");
+        engine.save(); // Returns at once; the tree is written on the save thread
     }
 
+    /**
+     * Waits for queued saves to reach the disk, e.g. when the window is closing.
+     * @return false if they did not finish within the timeout or failed.
+     */
+    public boolean flushPendingSaves(long timeoutMillis) {
+        return engine.flush(timeoutMillis);
+    }
 
     private void createAddOptionsPopup() {
         addOptionsPopup = new Popup();
@@ -449,6 +464,9 @@ public class Controller implements Initializable {
 
     @FXML
     public void showAddMenu(ActionEvent event) {
+        if (addOptionsPopup == null) {
+            createAddOptionsPopup(); // Not needed for the first frame, so it is built on first use
+        }
         if (addOptionsPopup.isShowing()) {
             addOptionsPopup.hide();
             return;
@@ -499,11 +517,18 @@ public class Controller implements Initializable {
         launcherListView.getItems().addAll(topLevelLaunchersToAdd);
         launcherListView.setPrefHeight(200);
         launcherListView.setCellFactory(lv -> new ListCell<LauncherItem>() {
+            private final ImageView iconView = createIconView();
+
             @Override
             protected void updateItem(LauncherItem item, boolean empty) {
                 super.updateItem(item, empty);
                 setText(empty ? null : item.getName() + (item != null && item.isFolder() ? " (Folder)" : ""));
-                setGraphic(item != null && !empty ? getIconForLauncherItem(item) : null);
+                if (item != null && !empty) {
+                    iconView.setImage(icons.imageFor(item));
+                    setGraphic(iconView);
+                } else {
+                    setGraphic(null);
+                }
             }
         });
 
@@ -522,14 +547,7 @@ public class Controller implements Initializable {
                 }
 
                 if (itemInMasterList != null) {
-                    itemInMasterList.setStartupLauncher(true);
-                    
-                    if (!allOriginalStartupLaunchers.contains(itemInMasterList)) {
-                        allOriginalStartupLaunchers.add(itemInMasterList);
-                    }
-                    
-                    setupStartupLaunchersTree();
-                    saveLaunchers();
+                    repository.setStartupLauncher(itemInMasterList, true);
 
                     // Removed: All OS-level startup registration logic from here.
                     // The app no longer registers itself to start with the OS via this action.
@@ -589,14 +607,12 @@ public class Controller implements Initializable {
                 }
 
                 LauncherItem newFolder = new LauncherItem(folderName);
-                allOriginalTopLevelLaunchers.add(newFolder);
                 TreeItem<LauncherItem> rootItem = AllLaunchersTreeView.getRoot();
                 if (rootItem != null) {
-                    addLauncherItemToTreeView(rootItem, newFolder);
+                    addLauncherItem(rootItem, null, newFolder);
                 } else {
                     System.err.println("Error: AllLaunchersTreeView root is null. Cannot add new folder.");
                 }
-                saveLaunchers();
                 dialogStage.close();
             } else {
                 showAlert(AlertType.WARNING, "Input Error", "Folder name cannot be empty.");
@@ -648,24 +664,22 @@ public class Controller implements Initializable {
             if (!name.isEmpty() && !url.isEmpty()) {
                 LauncherItem newUrl = new LauncherItem(name, url);
                 
-                LauncherItem originalParent = findLauncherItemInList(parentFolder.getValue().getName(), true, allOriginalTopLevelLaunchers);
-                if (originalParent != null && originalParent.isFolder()) {
+                LauncherItem originalParent = parentFolder.getValue(); // Trees and search results show the master list's items
+                if (originalParent != null && originalParent.isFolder() && repository.contains(originalParent)) {
                     boolean exists = originalParent.getChildren().stream()
                                        .anyMatch(li -> li.getName().equalsIgnoreCase(name) || (!li.isFolder() && li.getUrlOrPath().equalsIgnoreCase(url)));
                     if (exists) {
                         showAlert(AlertType.WARNING, "Duplicate Item", "An item with this name or URL already exists in this folder. Please choose a different name or URL.");
                         return;
                     }
-                    originalParent.addChild(newUrl);
                 } else {
                     System.err.println("Error: Original parent folder not found in master list.");
                     showAlert(AlertType.ERROR, "Add Error", "Could not find the parent folder to add the URL.");
                     return;
                 }
 
-                addLauncherItemToTreeView(parentFolder, newUrl);
+                addLauncherItem(parentFolder, originalParent, newUrl);
                 dialogStage.close();
-                saveLaunchers();
             } else {
                 showAlert(AlertType.WARNING, "Input Error", "Both name and URL cannot be empty.");
             }
@@ -721,24 +735,22 @@ public class Controller implements Initializable {
             if (!name.isEmpty() && !path.isEmpty()) {
                 LauncherItem newShortcut = new LauncherItem(name, path);
 
-                LauncherItem originalParent = findLauncherItemInList(parentFolder.getValue().getName(), true, allOriginalTopLevelLaunchers);
-                if (originalParent != null && originalParent.isFolder()) {
+                LauncherItem originalParent = parentFolder.getValue(); // Trees and search results show the master list's items
+                if (originalParent != null && originalParent.isFolder() && repository.contains(originalParent)) {
                     boolean exists = originalParent.getChildren().stream()
                                        .anyMatch(li -> li.getName().equalsIgnoreCase(name) || (!li.isFolder() && li.getUrlOrPath().equalsIgnoreCase(path)));
                     if (exists) {
                         showAlert(AlertType.WARNING, "Duplicate Item", "An item with this name or path already exists in this folder. Please choose a different name or path.");
                         return;
                     }
-                    originalParent.addChild(newShortcut);
                 } else {
                     System.err.println("Error: Original parent folder not found in master list.");
                     showAlert(AlertType.ERROR, "Add Error", "Could not find the parent folder to add the shortcut.");
                     return;
                 }
 
-                addLauncherItemToTreeView(parentFolder, newShortcut);
+                addLauncherItem(parentFolder, originalParent, newShortcut);
                 dialogStage.close();
-                saveLaunchers();
             } else {
                 showAlert(AlertType.WARNING, "Input Error", "Both name and path cannot be empty.");
             }
@@ -766,10 +778,16 @@ public class Controller implements Initializable {
         dialogStage.showAndWait();
     }
 
-    private void addLauncherItemToTreeView(TreeItem<LauncherItem> parentTreeItem, LauncherItem newLauncherItem) {
-        ImageView iconView = getIconForLauncherItem(newLauncherItem);
-        TreeItem<LauncherItem> newTreeItem = new TreeItem<>(newLauncherItem, iconView);
-        parentTreeItem.getChildren().add(newTreeItem);
+    /**
+     * Adds an item to {@code modelParent} (null for the top level) in the master list.
+     * @param parentTreeItem The TreeItem the user added to, which is expanded to show the new item.
+     */
+    private void addLauncherItem(TreeItem<LauncherItem> parentTreeItem, LauncherItem modelParent, LauncherItem newLauncherItem) {
+        if (AllLaunchersTreeView.getRoot() == searchTree.getRoot()) {
+            searchRanks.put(newLauncherItem, Integer.MAX_VALUE); // Shown after the results, although it may not match
+            searchTree.filterChanged();
+        }
+        repository.add(newLauncherItem, modelParent);
         parentTreeItem.setExpanded(true);
         showAlert(AlertType.INFORMATION, "Item Added", "'" + newLauncherItem.getName() + "' added to '" + parentTreeItem.getValue().getName() + "'!");
     }
@@ -794,56 +812,44 @@ public class Controller implements Initializable {
         Optional<ButtonType> result = confirmAlert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
             LauncherItem itemToRemove = itemToDelete.getValue();
-            TreeItem<LauncherItem> parentTreeItem = itemToDelete.getParent();
-
-            // Remove from the UI TreeView
-            parentTreeItem.getChildren().remove(itemToDelete);
-
-            // Remove from the master data list (allOriginalTopLevelLaunchers)
-            if (parentTreeItem.getValue().getName().equals("InvisibleRoot")) {
-                allOriginalTopLevelLaunchers.removeIf(item -> item == itemToRemove);
-            } else {
-                LauncherItem originalParentLauncherItem = findLauncherItemInList(parentTreeItem.getValue().getName(), true, allOriginalTopLevelLaunchers);
-                if (originalParentLauncherItem != null && originalParentLauncherItem.isFolder()) {
-                    originalParentLauncherItem.getChildren().removeIf(child -> child == itemToRemove);
-                } else {
-                    System.err.println("Error: Could not find original parent launcher item for deletion.");
-                }
-            }
-
-            if (itemToRemove.isStartupLauncher()) {
-                allOriginalStartupLaunchers.removeIf(startupItem -> startupItem == itemToRemove);
-                setupStartupLaunchersTree();
-                // Removed: startupManager.unregisterAppFromStartup() logic here.
+            if (!repository.remove(itemToRemove)) {
+                System.err.println("Error: '" + itemToRemove.getName() + "' (id " + itemToRemove.getId() + ") is not in the master list.");
+                showAlert(AlertType.ERROR, "Deletion Error", "Could not find '" + itemToRemove.getName() + "' in the launcher list.");
+                return;
             }
-
             showAlert(AlertType.INFORMATION, "Deleted", "'" + itemToDelete.getValue().getName() + "' has been deleted.");
-            saveLaunchers();
         }
     }
 
-    private LauncherItem findLauncherItemInList(String identifier, boolean isFolder, List<LauncherItem> items) {
-        if (items == null) return null;
-        for (LauncherItem item : items) {
-            if (isFolder) {
-                if (item.isFolder() && item.getName().equals(identifier)) {
-                    return item;
-                }
-            } else {
-                if (!item.isFolder() && item.getUrlOrPath() != null && item.getUrlOrPath().equals(identifier)) {
-                    return item;
-                }
-            }
-            if (item.isFolder() && item.getChildren() != null) {
-                LauncherItem found = findLauncherItemInList(identifier, isFolder, item.getChildren());
-                if (found != null) {
-                    return found;
-                }
-            }
+    public void renameLauncherItem(TreeItem<LauncherItem> itemToRename) {
+        if (itemToRename == null || itemToRename.getParent() == null) {
+            showAlert(AlertType.ERROR, "Rename Error", "Cannot rename the root or a null item.");
+            return;
+        }
+
+        LauncherItem item = itemToRename.getValue();
+        TextInputDialog renameDialog = new TextInputDialog(item.getName());
+        renameDialog.setTitle("Rename");
+        renameDialog.setHeaderText(null);
+        renameDialog.setContentText("New name:");
+        renameDialog.getDialogPane().getStylesheets().add(getClass().getResource("application.css").toExternalForm());
+        renameDialog.getDialogPane().getStyleClass().add("alert-dialog");
+
+        Optional<String> result = renameDialog.showAndWait();
+        if (result.isEmpty()) {
+            return;
+        }
+        String newName = result.get().trim();
+        if (newName.isEmpty()) {
+            showAlert(AlertType.WARNING, "Input Error", "Name cannot be empty.");
+            return;
+        }
+        if (newName.equals(item.getName())) {
+            return;
         }
-        return null;
-    }
 
+        repository.rename(item, newName);
+    }
 
     private void showAlert(AlertType type, String title, String message) {
         Alert alert = new Alert(type);
@@ -862,54 +868,66 @@ public class Controller implements Initializable {
         }
     }
 
-    public void launchItemPath(String pathOrUrl) {
-        if (pathOrUrl == null || pathOrUrl.trim().isEmpty()) {
-            System.err.println("Launch failed: Path or URL is empty.");
-            return;
-        }
-
-        try {
-            if (pathOrUrl.startsWith("http://") || pathOrUrl.startsWith("https://")) {
-                Desktop.getDesktop().browse(new URI(pathOrUrl));
+    /**
+     * Launches a single item through the engine, which keeps the existence check and the desktop handoff
+     * off the FX thread and counts the launch; failures are reported here.
+     */
+    public void launchItem(LauncherItem item) {
+        String pathOrUrl = item.getUrlOrPath();
+        engine.launch(item).whenComplete((ignored, cause) -> {
+            if (cause == null) {
+                return;
+            }
+            if (cause instanceof FileNotFoundException) {
+                System.err.println("File not found: " + pathOrUrl);
+                showAlert(AlertType.ERROR, "Launch Error", "File or application not found at: " + pathOrUrl);
+            } else if (cause instanceof TimeoutException) {
+                showAlert(AlertType.WARNING, "Launch Error", "'" + pathOrUrl + "' did not respond after "
+                        + engine.getLaunchScheduler().getTimeoutMillis() + " ms; it may still open.");
             } else {
-                File file = new File(pathOrUrl);
-                if (file.exists()) {
-                    Desktop.getDesktop().open(file);
-                } else {
-                    System.err.println("File not found: " + pathOrUrl);
-                    showAlert(AlertType.ERROR, "Launch Error", "File or application not found at: " + pathOrUrl);
-                }
+                System.err.println("Error launching: " + cause.getMessage());
+                showAlert(AlertType.ERROR, "Launch Error", "Could not launch '" + pathOrUrl + "': " + cause.getMessage());
             }
-        } catch (IOException | URISyntaxException e) {
-            System.err.println("Error launching: " + e.getMessage());
-            e.printStackTrace();
-            showAlert(AlertType.ERROR, "Launch Error", "Could not launch '" + pathOrUrl + "': " + e.getMessage());
-        }
+        });
     }
 
     // Removed: private String getJarPath() { ... } // No longer needed
 
+    // An icon-sized view for one cell; cells set its image from the shared LauncherIcons on every update.
+    private static ImageView createIconView() {
+        ImageView iconView = new ImageView();
+        iconView.setFitWidth(24);
+        iconView.setFitHeight(20);
+        return iconView;
+    }
+
 
     private class CustomStringTreeCell extends TreeCell<LauncherItem> {
         private HBox contentWrapper;
         private ImageView itemIconView;
+        private final ImageView arrowIconView = new ImageView(); // Reused; only its image changes
         private Label itemTextLabel;
+        private Label statusLabel; // Startup plan progress, only in the startup tree
         private Button launchButton;
         private Button customArrowButton;
         private HBox actionButtonsBox;
         private ContextMenu folderContextMenu;
         private ContextMenu leafContextMenu;
+        private final List<MenuItem> scheduleMenuItems = new ArrayList<>(); // Shown for startup launchers
+        private final Tooltip missingTargetTooltip = new Tooltip("File or application not found");
+        private final List<MenuItem> cancelStartupMenuItems = new ArrayList<>(); // Shown while the startup plan runs
         private Controller controller;
 
         public CustomStringTreeCell(Controller controller) {
             this.controller = controller;
 
-            itemIconView = new ImageView();
-            itemIconView.setFitWidth(24);
-            itemIconView.setFitHeight(20);
+            itemIconView = createIconView();
 
             itemTextLabel = new Label();
 
+            statusLabel = new Label();
+            statusLabel.getStyleClass().add("launch-status");
+
             launchButton = new Button("Launch");
             launchButton.getStyleClass().add("launch-button");
             launchButton.setOnAction(event -> {
@@ -919,20 +937,22 @@ public class Controller implements Initializable {
                         Alert confirmAlert = new Alert(AlertType.CONFIRMATION);
                         confirmAlert.setTitle("Launch All Items in Folder");
                         confirmAlert.setHeaderText("Are you sure you want to launch all items in '" + treeItem.getValue().getName() + "'?");
-                        confirmAlert.setContentText("This will attempt to open " + treeItem.getChildren().size() + " links/shortcuts.");
+                        confirmAlert.setContentText("This will attempt to open " + treeItem.getValue().getChildCount() + " links/shortcuts.");
                         confirmAlert.getDialogPane().getStylesheets().add(getClass().getResource("application.css").toExternalForm());
                         confirmAlert.getDialogPane().getStyleClass().add("alert-dialog");
 
                         Optional<ButtonType> result = confirmAlert.showAndWait();
                         if (result.isPresent() && result.get() == ButtonType.OK) {
-                            for (TreeItem<LauncherItem> childItem : treeItem.getChildren()) {
-                                launchRecursive(childItem.getValue());
-                            }
+                            // The folder's own contents: the tree may show a filtered view, or not have built them yet.
+                            List<LauncherItem> children = treeItem.getValue().getChildren() == null
+                                    ? new ArrayList<>() : new ArrayList<>(treeItem.getValue().getChildren());
+                            String folderName = treeItem.getValue().getName();
+                            engine.launchAll(children, true, summary -> reportLaunchSummary("Launch '" + folderName + "'", summary));
                         }
                     } else {
                         String pathOrUrl = treeItem.getValue().getUrlOrPath();
                         System.out.println("Launching single item: " + treeItem.getValue().getName() + " (" + pathOrUrl + ")");
-                        controller.launchItemPath(pathOrUrl);
+                        controller.launchItem(treeItem.getValue());
                     }
                 }
             });
@@ -952,7 +972,7 @@ public class Controller implements Initializable {
             actionButtonsBox = new HBox(5, launchButton, customArrowButton);
             actionButtonsBox.setAlignment(Pos.CENTER_RIGHT);
 
-            contentWrapper = new HBox(5, itemIconView, itemTextLabel, spacer, actionButtonsBox);
+            contentWrapper = new HBox(5, itemIconView, itemTextLabel, statusLabel, spacer, actionButtonsBox);
             contentWrapper.setAlignment(Pos.CENTER_LEFT);
             contentWrapper.setPadding(new javafx.geometry.Insets(5, 0, 5, 0));
 
@@ -975,6 +995,8 @@ public class Controller implements Initializable {
                     controller.showAddShortcutDialog(selectedItem);
                 }
             });
+            MenuItem renameFolder = new MenuItem("Rename Folder");
+            renameFolder.setOnAction(e -> controller.renameLauncherItem(getTreeItem()));
             MenuItem deleteFolder = new MenuItem("Delete Folder");
             deleteFolder.setOnAction(e -> controller.deleteLauncherItem(getTreeItem()));
 
@@ -983,17 +1005,7 @@ public class Controller implements Initializable {
                 TreeItem<LauncherItem> selectedItem = getTreeItem();
                 if (selectedItem != null && selectedItem.getValue().isFolder()) {
                     boolean currentStatus = selectedItem.getValue().isStartupLauncher();
-                    selectedItem.getValue().setStartupLauncher(!currentStatus);
-
-                    controller.allOriginalStartupLaunchers.clear();
-                    for (LauncherItem item : controller.allOriginalTopLevelLaunchers) {
-                        if (item.isStartupLauncher()) {
-                            controller.allOriginalStartupLaunchers.add(item);
-                        }
-                    }
-
-                    controller.saveLaunchers();
-                    controller.setupStartupLaunchersTree();
+                    controller.repository.setStartupLauncher(selectedItem.getValue(), !currentStatus);
 
                     String action = currentStatus ? "removed from" : "added to";
                     controller.showAlert(AlertType.INFORMATION, "Startup Launcher Updated",
@@ -1001,10 +1013,13 @@ public class Controller implements Initializable {
                     // Removed: OS-level startup registration logic from here.
                 }
             });
-            folderContextMenu.getItems().addAll(addUrlToFolder, addShortcutToFolder, deleteFolder, toggleFolderStartup);
+            folderContextMenu.getItems().addAll(addUrlToFolder, addShortcutToFolder, renameFolder, deleteFolder, toggleFolderStartup);
+            addStartupPlanMenuItems(folderContextMenu);
 
 
             leafContextMenu = new ContextMenu();
+            MenuItem renameItem = new MenuItem("Rename Item");
+            renameItem.setOnAction(e -> controller.renameLauncherItem(getTreeItem()));
             MenuItem deleteItem = new MenuItem("Delete Item");
             deleteItem.setOnAction(e -> controller.deleteLauncherItem(getTreeItem()));
 
@@ -1013,17 +1028,7 @@ public class Controller implements Initializable {
                 TreeItem<LauncherItem> selectedItem = getTreeItem();
                 if (selectedItem != null && !selectedItem.getValue().isFolder()) {
                     boolean currentStatus = selectedItem.getValue().isStartupLauncher();
-                    selectedItem.getValue().setStartupLauncher(!currentStatus);
-
-                    controller.allOriginalStartupLaunchers.clear();
-                    for (LauncherItem item : controller.allOriginalTopLevelLaunchers) {
-                        if (item.isStartupLauncher()) {
-                            controller.allOriginalStartupLaunchers.add(item);
-                        }
-                    }
-
-                    controller.saveLaunchers();
-                    controller.setupStartupLaunchersTree();
+                    controller.repository.setStartupLauncher(selectedItem.getValue(), !currentStatus);
 
                     String action = currentStatus ? "removed from" : "added to";
                     controller.showAlert(AlertType.INFORMATION, "Startup Launcher Updated",
@@ -1031,7 +1036,8 @@ public class Controller implements Initializable {
                     // Removed: OS-level startup registration logic from here.
                 }
             });
-            leafContextMenu.getItems().addAll(deleteItem, toggleLeafStartup);
+            leafContextMenu.getItems().addAll(renameItem, deleteItem, toggleLeafStartup);
+            addStartupPlanMenuItems(leafContextMenu);
 
 
             this.setOnContextMenuRequested(event -> {
@@ -1040,6 +1046,10 @@ public class Controller implements Initializable {
                     leafContextMenu.hide();
                     return;
                 }
+                boolean isStartupLauncher = getItem().isStartupLauncher();
+                boolean canCancel = getTreeView() == controller.StartupLaunchersTreeView && controller.engine.isStartupPlanRunning();
+                scheduleMenuItems.forEach(menuItem -> menuItem.setVisible(isStartupLauncher));
+                cancelStartupMenuItems.forEach(menuItem -> menuItem.setVisible(canCancel));
                 if (getTreeItem().getValue().isFolder()) {
                     if (getTreeItem().getValue().isStartupLauncher()) {
                         toggleFolderStartup.setText("Remove from Startup");
@@ -1058,6 +1068,23 @@ public class Controller implements Initializable {
             });
         }
 
+        private void addStartupPlanMenuItems(ContextMenu menu) {
+            MenuItem schedule = new MenuItem("Startup Schedule...");
+            schedule.setOnAction(e -> {
+                if (getItem() != null) {
+                    controller.showStartupScheduleDialog(getItem());
+                }
+            });
+            SeparatorMenuItem separator = new SeparatorMenuItem();
+            MenuItem cancelStartup = new MenuItem("Cancel Pending Startup Launches");
+            cancelStartup.setOnAction(e -> controller.cancelStartupPlan());
+
+            menu.getItems().addAll(schedule, separator, cancelStartup);
+            scheduleMenuItems.add(schedule);
+            cancelStartupMenuItems.add(separator);
+            cancelStartupMenuItems.add(cancelStartup);
+        }
+
         @Override
         protected void updateItem(LauncherItem item, boolean empty) {
             super.updateItem(item, empty);
@@ -1065,21 +1092,28 @@ public class Controller implements Initializable {
                 setGraphic(null);
                 setText(null);
                 setContextMenu(null);
+                setTooltip(null);
                 return;
             }
 
             itemTextLabel.setText(item.getName());
-
-            itemIconView.setImage(controller.getIconForLauncherItem(item).getImage());
+            String status = getTreeView() == controller.StartupLaunchersTreeView ? controller.engine.startupStatusOf(item) : null;
+            statusLabel.setText(status);
+            statusLabel.setVisible(status != null);
+            statusLabel.setManaged(status != null);
+            // Never blocks: an unchecked target is shown as present until its background check says otherwise.
+            boolean missing = !item.isFolder() && controller.pathStatusService.statusOf(item.getUrlOrPath()) == PathStatusService.Status.MISSING;
+            itemTextLabel.pseudoClassStateChanged(MISSING_TARGET, missing);
+            setTooltip(missing ? missingTargetTooltip : null);
+
+            // Startup launchers keep the startup icon as their marker; other items show their own icon once it is loaded.
+            Image ownIcon = item.isStartupLauncher() ? null : controller.iconCache.iconFor(item);
+            itemIconView.setImage(ownIcon != null ? ownIcon : controller.icons.imageFor(item));
 
             if (item.isFolder()) {
-                if (getTreeItem().isExpanded() && controller.arrowUpIcon != null) {
-                    customArrowButton.setGraphic(new ImageView(controller.arrowUpIcon));
-                } else if (!getTreeItem().isExpanded() && controller.arrowDownIcon != null) {
-                    customArrowButton.setGraphic(new ImageView(controller.arrowDownIcon));
-                } else {
-                    customArrowButton.setGraphic(null);
-                }
+                Image arrow = controller.icons.arrowFor(getTreeItem().isExpanded());
+                arrowIconView.setImage(arrow);
+                customArrowButton.setGraphic(arrow != null ? arrowIconView : null);
                 customArrowButton.setVisible(true);
                 launchButton.setVisible(true);
 
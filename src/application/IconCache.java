@@ -0,0 +1,303 @@
+package application;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import javax.swing.Icon;
+import javax.swing.filechooser.FileSystemView;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import application.core.DesktopLauncher;
+import application.core.LauncherItem;
+
+/**
+ * Per-launcher icons: the site's favicon for a web URL, the system icon for a shortcut target.
+ *
+ * {@link #iconFor} only ever looks at memory. An icon that is not there yet is loaded on a small
+ * background pool and the listeners are told (on the UI executor) once it is ready, so cells can repaint;
+ * until then, and for items without an icon of their own, callers draw the generic {@link LauncherIcons}.
+ * Decoded icons are kept in an LRU of {@code nexlaunch.iconCacheSize} entries (default 512), keyed by
+ * host for URLs and by path for files; an icon that could not be found is remembered as such in the same LRU.
+ *
+ * Favicons are cached on disk in {@code ~/.nexlaunch/favicons} (or {@code nexlaunch.faviconDir}), one
+ * file per host, and only those files are shown unless {@code nexlaunch.fetchFavicons=true}: then a host
+ * without a cached file gets its {@code /favicon.ico} downloaded. A failed download leaves an empty file,
+ * whose modification time keeps the host from being asked again for {@code nexlaunch.faviconRetryHours}
+ * (default 24). JavaFX decodes PNG, GIF, JPEG and BMP, and for .ico files the PNG images embedded in them.
+ */
+public class IconCache {
+
+    private static final int ICON_WIDTH = 24; // Same box as the cells' ImageViews
+    private static final int ICON_HEIGHT = 20;
+    private static final int LOADER_THREADS = 2;
+    private static final int DEFAULT_CAPACITY = 512;
+    private static final int FETCH_TIMEOUT_MILLIS = 3000;
+    private static final int MAX_FAVICON_BYTES = 256 * 1024;
+    private static final long DEFAULT_FAVICON_RETRY_HOURS = 24;
+
+    private final Map<String, Optional<Image>> icons; // Guarded by itself; access order makes it an LRU
+    private final Set<String> loading = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor loaderPool;
+    private final Executor uiExecutor;
+    private final Path faviconDirectory;
+    private final boolean fetchFavicons = Boolean.getBoolean("nexlaunch.fetchFavicons"); // Off by default: it contacts every site
+    private final long faviconRetryMillis = TimeUnit.HOURS.toMillis(Long.getLong("nexlaunch.faviconRetryHours", DEFAULT_FAVICON_RETRY_HOURS));
+    private final Map<String, Long> retryAt = new ConcurrentHashMap<>(); // Hosts whose download failed, by when to try again
+    private final List<Consumer<LauncherItem>> listeners = new ArrayList<>();
+
+    public IconCache(Executor uiExecutor) {
+        this(uiExecutor, Integer.getInteger("nexlaunch.iconCacheSize", DEFAULT_CAPACITY),
+                Paths.get(System.getProperty("nexlaunch.faviconDir",
+                        System.getProperty("user.home") + File.separator + ".nexlaunch" + File.separator + "favicons")));
+    }
+
+    public IconCache(Executor uiExecutor, int capacity, Path faviconDirectory) {
+        this.uiExecutor = uiExecutor;
+        this.faviconDirectory = faviconDirectory;
+        int maxEntries = Math.max(1, capacity);
+        this.icons = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Optional<Image>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.loaderPool = new ThreadPoolExecutor(LOADER_THREADS, LOADER_THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "icon-loader-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY); // Icons are cosmetic; launches and search come first
+            return thread;
+        });
+        this.loaderPool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Registers a callback for items whose icon became ready. Call from the UI thread, before icons are requested.
+     */
+    public void addListener(Consumer<LauncherItem> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return The icon of {@code item} if it is in memory, otherwise null; a null for an icon that was never
+     *         loaded queues the load. Folders have no icon of their own. Never blocks.
+     */
+    public Image iconFor(LauncherItem item) {
+        if (item.isFolder()) {
+            return null;
+        }
+        String key = keyOf(item.getUrlOrPath());
+        if (key == null) {
+            return null;
+        }
+        Optional<Image> icon;
+        synchronized (icons) {
+            icon = icons.get(key);
+        }
+        if (icon != null && (icon.isPresent() || !isDueForRetry(key))) {
+            return icon.orElse(null);
+        }
+        if (loading.add(key)) {
+            String pathOrUrl = item.getUrlOrPath();
+            loaderPool.execute(() -> load(key, pathOrUrl, item));
+        }
+        return null;
+    }
+
+    private boolean isDueForRetry(String key) {
+        Long at = retryAt.get(key);
+        return at != null && System.currentTimeMillis() >= at && retryAt.remove(key, at);
+    }
+
+    // "host:" + host for web URLs (one favicon per site), "file:" + path otherwise; null if there is nothing to load.
+    private static String keyOf(String pathOrUrl) {
+        if (pathOrUrl == null || pathOrUrl.trim().isEmpty()) {
+            return null;
+        }
+        if (DesktopLauncher.isWebUrl(pathOrUrl)) {
+            String host = hostOf(pathOrUrl);
+            return host == null ? null : "host:" + host;
+        }
+        return "file:" + pathOrUrl;
+    }
+
+    private static String hostOf(String url) {
+        try {
+            String host = new URI(url).getHost();
+            return host == null ? null : host.toLowerCase(Locale.ROOT);
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private void load(String key, String pathOrUrl, LauncherItem item) {
+        Image image = null;
+        try {
+            image = key.startsWith("host:") ? loadFavicon(key, key.substring("host:".length())) : loadSystemIcon(pathOrUrl);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("IconCache: No icon for " + pathOrUrl + ": " + e.getMessage());
+        }
+        synchronized (icons) {
+            icons.put(key, Optional.ofNullable(image));
+        }
+        loading.remove(key);
+        if (image != null) {
+            uiExecutor.execute(() -> {
+                for (Consumer<LauncherItem> listener : listeners) {
+                    listener.accept(item);
+                }
+            });
+        }
+    }
+
+    private Image loadFavicon(String key, String host) throws IOException {
+        Path file = faviconDirectory.resolve(host.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9.-]", "_") + ".ico");
+        byte[] bytes = null;
+        if (Files.exists(file)) {
+            bytes = Files.readAllBytes(file);
+        }
+        boolean failureExpired = bytes != null && bytes.length == 0 && failedAt(file) + faviconRetryMillis <= System.currentTimeMillis();
+        if (fetchFavicons && (bytes == null || failureExpired)) {
+            bytes = fetchFavicon(host);
+            Files.createDirectories(faviconDirectory);
+            Path temp = Files.createTempFile(faviconDirectory, "favicon", ".tmp");
+            Files.write(temp, bytes); // Empty after a failed download; its modification time is when it failed
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length == 0) {
+            if (fetchFavicons) {
+                retryAt.put(key, failedAt(file) + faviconRetryMillis);
+            }
+            return null;
+        }
+        return decode(bytes);
+    }
+
+    private static long failedAt(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return System.currentTimeMillis();
+        }
+    }
+
+    private static byte[] fetchFavicon(String host) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL("https://" + host + "/favicon.ico").openConnection();
+            connection.setConnectTimeout(FETCH_TIMEOUT_MILLIS);
+            connection.setReadTimeout(FETCH_TIMEOUT_MILLIS);
+            connection.setInstanceFollowRedirects(true);
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                return new byte[0];
+            }
+            try (InputStream in = connection.getInputStream()) {
+                byte[] bytes = in.readNBytes(MAX_FAVICON_BYTES + 1);
+                return bytes.length > MAX_FAVICON_BYTES ? new byte[0] : bytes;
+            }
+        } catch (IOException | ClassCastException e) {
+            System.err.println("IconCache: Could not download favicon of " + host + ": " + e.getMessage());
+            return new byte[0];
+        }
+    }
+
+    // Decodes an image file, or the largest PNG inside an .ico file.
+    static Image decode(byte[] bytes) {
+        byte[] imageBytes = isIco(bytes) ? largestPngInIco(bytes) : bytes;
+        if (imageBytes == null) {
+            return null;
+        }
+        Image image = new Image(new ByteArrayInputStream(imageBytes), ICON_WIDTH, ICON_HEIGHT, true, true);
+        return image.isError() ? null : image;
+    }
+
+    private static boolean isIco(byte[] bytes) {
+        return bytes.length >= 6 && bytes[0] == 0 && bytes[1] == 0 && bytes[2] == 1 && bytes[3] == 0;
+    }
+
+    private static byte[] largestPngInIco(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int count = Short.toUnsignedInt(in.getShort(4));
+        byte[] best = null;
+        int bestWidth = -1;
+        for (int i = 0; i < count; i++) {
+            int entry = 6 + i * 16;
+            if (entry + 16 > bytes.length) {
+                break;
+            }
+            int width = Byte.toUnsignedInt(bytes[entry]) == 0 ? 256 : Byte.toUnsignedInt(bytes[entry]);
+            int size = in.getInt(entry + 8);
+            int offset = in.getInt(entry + 12);
+            if (offset < 0 || size < 8 || offset + size > bytes.length || offset + size < 0) {
+                continue;
+            }
+            boolean png = bytes[offset] == (byte) 0x89 && bytes[offset + 1] == 'P' && bytes[offset + 2] == 'N' && bytes[offset + 3] == 'G';
+            if (png && width > bestWidth) {
+                best = Arrays.copyOfRange(bytes, offset, offset + size);
+                bestWidth = width;
+            }
+        }
+        return best;
+    }
+
+    // FileSystemView can touch the disk (and the shell), which is why this only ever runs on the loader pool.
+    private static Image loadSystemIcon(String path) {
+        File file = new File(path);
+        if (!file.exists()) {
+            return null;
+        }
+        Icon icon = FileSystemView.getFileSystemView().getSystemIcon(file);
+        if (icon == null || icon.getIconWidth() <= 0 || icon.getIconHeight() <= 0) {
+            return null;
+        }
+        BufferedImage buffered = new BufferedImage(icon.getIconWidth(), icon.getIconHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = buffered.createGraphics();
+        try {
+            icon.paintIcon(null, graphics, 0, 0);
+        } finally {
+            graphics.dispose();
+        }
+        int width = buffered.getWidth();
+        int height = buffered.getHeight();
+        int[] pixels = buffered.getRGB(0, 0, width, height, null, 0, width);
+        WritableImage image = new WritableImage(width, height);
+        image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        return image;
+    }
+}
@@ -0,0 +1,77 @@
+package application;
+
+import java.net.URL;
+
+import javafx.scene.image.Image;
+
+import application.core.LauncherItem;
+
+/**
+ * The icons used to draw launchers, each loaded once and shared by every cell.
+ *
+ * An {@link Image} can back any number of ImageViews, so cells keep their own ImageView and only swap
+ * the image when they are reused; TreeItems carry no graphic at all. A missing resource falls back to
+ * another icon (the arrows to none) instead of failing the UI.
+ *
+ * The images are decoded on JavaFX's background loader rather than while the window is being built;
+ * an ImageView shows its image as soon as it is ready.
+ */
+public final class LauncherIcons {
+
+    // 1x1 transparent PNG, used when even the folder icon is missing
+    private static final String PLACEHOLDER = "data:image/png;base64,iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAQAAAC1HAwCAAAAC0lEQVR42mNkYAAAAAYAAjCB0C8AAAAASUVORK5CYII=";
+
+    private final Image folder;
+    private final Image file;
+    private final Image startup;
+    private final Image arrowDown; // Null if missing
+    private final Image arrowUp; // Null if missing
+
+    public LauncherIcons() {
+        Image folderIcon = load("/foldericon.png");
+        if (folderIcon == null) {
+            System.err.println("Warning: foldericon.png not found. Using a default placeholder.");
+            folderIcon = new Image(PLACEHOLDER);
+        }
+        folder = folderIcon;
+        file = loadOrFallBack("/fileicon.png", "Warning: fileicon.png not found. Using folderIcon as fallback for files.");
+        startup = loadOrFallBack("/startupicon.png", "Warning: startupicon.png not found. Using folderIcon as fallback for startup items.");
+        arrowDown = load("/arrow_down.png");
+        if (arrowDown == null) {
+            System.err.println("Warning: arrow_down.png not found.");
+        }
+        arrowUp = load("/arrow_up.png");
+        if (arrowUp == null) {
+            System.err.println("Warning: arrow_up.png not found.");
+        }
+    }
+
+    /**
+     * @return The shared icon for {@code item}: startup launchers, folders and everything else each have one.
+     */
+    public Image imageFor(LauncherItem item) {
+        if (item.isStartupLauncher()) {
+            return startup;
+        }
+        return item.isFolder() ? folder : file;
+    }
+
+    // The arrow for a folder's expand button, or null if the arrow images are missing.
+    public Image arrowFor(boolean expanded) {
+        return expanded ? arrowUp : arrowDown;
+    }
+
+    private Image loadOrFallBack(String resource, String warning) {
+        Image image = load(resource);
+        if (image == null) {
+            System.err.println(warning);
+            return folder;
+        }
+        return image;
+    }
+
+    private static Image load(String resource) {
+        URL url = LauncherIcons.class.getResource(resource);
+        return url == null ? null : new Image(url.toExternalForm(), true); // Decoded in the background
+    }
+}
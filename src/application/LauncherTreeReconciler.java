@@ -0,0 +1,262 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import javafx.collections.ObservableList;
+import javafx.scene.control.TreeItem;
+
+import application.core.LauncherItem;
+
+/**
+ * Keeps one TreeItem per LauncherItem (by identity) under a root that is never replaced, and brings the
+ * TreeItems in line with the model by applying only the removals and insertions that differ, each contiguous
+ * range in one list change. When items moved, or most of them are new, the children are replaced with one
+ * setAll of the same TreeItems instead.
+ *
+ * Because TreeItems survive model changes and view switches, expansion and selection survive too, and
+ * showing the tree again (e.g. after a search) costs nothing. Children are created lazily through
+ * {@link LazyLauncherTreeItem}, so a folder that was never expanded is never reconciled either. All edits
+ * of one call happen on the FX thread in one go, so the TreeView lays out once for them.
+ *
+ * With a filter, only the launchers it accepts are shown, in the given order, but still as the live
+ * LauncherItems rather than copies: search results are such a filtered view of the launcher tree.
+ */
+public class LauncherTreeReconciler {
+
+    private final TreeItem<LauncherItem> root;
+    private final Supplier<List<LauncherItem>> topLevel;
+    private final Consumer<TreeItem<LauncherItem>> onCreate;
+    private final Predicate<LauncherItem> filter; // Null to show every launcher
+    private final Comparator<LauncherItem> order; // Null for model order
+    private final Map<LauncherItem, TreeItem<LauncherItem>> treeItems = new IdentityHashMap<>();
+
+    /**
+     * @param rootName Name of the invisible root item.
+     * @param topLevel Supplies the current top-level launchers, in display order.
+     * @param onCreate Called for every TreeItem this reconciler creates (e.g. to expand it), or null.
+     */
+    public LauncherTreeReconciler(String rootName, Supplier<List<LauncherItem>> topLevel, Consumer<TreeItem<LauncherItem>> onCreate) {
+        this(rootName, topLevel, onCreate, null, null);
+    }
+
+    /**
+     * @param filter Accepts the launchers to show. A folder it rejects is hidden with everything inside it,
+     *               so it has to accept the folders on the way to each launcher it accepts.
+     * @param order  Orders the shown children of each folder (stable, so ties keep model order), or null for model order.
+     */
+    public LauncherTreeReconciler(String rootName, Supplier<List<LauncherItem>> topLevel, Consumer<TreeItem<LauncherItem>> onCreate,
+            Predicate<LauncherItem> filter, Comparator<LauncherItem> order) {
+        this.root = new TreeItem<>(new LauncherItem(rootName));
+        this.root.setExpanded(true);
+        this.topLevel = topLevel;
+        this.onCreate = onCreate;
+        this.filter = filter;
+        this.order = order;
+    }
+
+    public TreeItem<LauncherItem> getRoot() {
+        return root;
+    }
+
+    /**
+     * @return The TreeItem shown for {@code item}, created if there is none yet.
+     */
+    public TreeItem<LauncherItem> treeItemFor(LauncherItem item) {
+        TreeItem<LauncherItem> treeItem = treeItems.get(item);
+        if (treeItem == null) {
+            treeItem = filter == null ? new LazyLauncherTreeItem(item, this::treeItemFor)
+                    : new LazyLauncherTreeItem(item, this::treeItemFor, this::shownChildrenOf);
+            treeItems.put(item, treeItem);
+            if (onCreate != null) {
+                onCreate.accept(treeItem);
+            }
+        }
+        return treeItem;
+    }
+
+    /**
+     * @return true if {@code treeItem} is one of this reconciler's items (and not, say, a search result).
+     */
+    public boolean owns(TreeItem<LauncherItem> treeItem) {
+        return treeItem == root || (treeItem != null && treeItems.get(treeItem.getValue()) == treeItem);
+    }
+
+    /**
+     * Brings the children of {@code folder} (null for the top level) in line with the model.
+     * A folder whose TreeItem does not exist or has not built its children yet is only marked stale,
+     * as those will be built from the model when needed.
+     */
+    public void childrenChanged(LauncherItem folder) {
+        if (folder == null) {
+            sync(root, shown(topLevel.get()));
+            return;
+        }
+        TreeItem<LauncherItem> treeItem = treeItems.get(folder);
+        if (treeItem instanceof LazyLauncherTreeItem) {
+            LazyLauncherTreeItem lazyItem = (LazyLauncherTreeItem) treeItem;
+            if (lazyItem.isChildrenBuilt()) {
+                sync(treeItem, shownChildrenOf(folder));
+            } else {
+                lazyItem.invalidateChildView();
+            }
+        }
+    }
+
+    /**
+     * Call after the filter started accepting different launchers: folders that have not built their
+     * children yet forget which ones they would show. Built children are not re-filtered.
+     */
+    public void filterChanged() {
+        for (TreeItem<LauncherItem> treeItem : treeItems.values()) {
+            if (treeItem instanceof LazyLauncherTreeItem && !((LazyLauncherTreeItem) treeItem).isChildrenBuilt()) {
+                ((LazyLauncherTreeItem) treeItem).invalidateChildView();
+            }
+        }
+    }
+
+    /**
+     * Drops every TreeItem and starts over, e.g. after the launchers were reloaded as new objects.
+     */
+    public void reset() {
+        forgetAll(root.getChildren());
+        root.getChildren().clear();
+        sync(root, shown(topLevel.get()));
+    }
+
+    private List<LauncherItem> shownChildrenOf(LauncherItem folder) {
+        List<LauncherItem> children = folder.getChildren();
+        return children != null ? shown(children) : List.of();
+    }
+
+    // The launchers of {@code items} that pass the filter, in display order.
+    private List<LauncherItem> shown(List<LauncherItem> items) {
+        if (filter == null) {
+            return items;
+        }
+        List<LauncherItem> shown = new ArrayList<>();
+        for (LauncherItem item : items) {
+            if (filter.test(item)) {
+                shown.add(item);
+            }
+        }
+        if (order != null) {
+            shown.sort(order);
+        }
+        return shown;
+    }
+
+    private void sync(TreeItem<LauncherItem> parent, List<LauncherItem> desired) {
+        ObservableList<TreeItem<LauncherItem>> children = parent.getChildren();
+        if (matches(children, desired)) {
+            return;
+        }
+        Map<LauncherItem, Integer> positions = new IdentityHashMap<>(desired.size());
+        for (int i = 0; i < desired.size(); i++) {
+            positions.put(desired.get(i), i);
+        }
+
+        // What stays, and whether it already is in the desired order (then only insertions are left to do).
+        List<TreeItem<LauncherItem>> removed = new ArrayList<>();
+        int kept = 0;
+        int lastPosition = -1;
+        boolean inOrder = true;
+        for (TreeItem<LauncherItem> child : children) {
+            Integer position = positions.get(child.getValue());
+            if (position == null) {
+                removed.add(child);
+            } else {
+                kept++;
+                inOrder &= position > lastPosition;
+                lastPosition = position;
+            }
+        }
+
+        if (!inOrder || desired.size() - kept > kept) {
+            // Moves, or mostly new children: replace the list in one change.
+            List<TreeItem<LauncherItem>> replacement = new ArrayList<>(desired.size());
+            for (LauncherItem item : desired) {
+                replacement.add(treeItemFor(item));
+            }
+            children.setAll(replacement);
+        } else {
+            removeRanges(children, positions);
+            insertRuns(children, desired);
+        }
+
+        for (TreeItem<LauncherItem> treeItem : removed) {
+            if (treeItem.getParent() == null) { // Not re-added elsewhere in the meantime
+                forget(treeItem);
+            }
+        }
+    }
+
+    // Removes the children not in {@code positions}, in contiguous ranges from the end so indices stay valid.
+    private static void removeRanges(ObservableList<TreeItem<LauncherItem>> children, Map<LauncherItem, Integer> positions) {
+        int end = children.size();
+        for (int i = children.size() - 1; i >= -1; i--) {
+            boolean keep = i < 0 || positions.containsKey(children.get(i).getValue());
+            if (keep) {
+                if (end > i + 1) {
+                    children.remove(i + 1, end);
+                }
+                end = i;
+            }
+        }
+    }
+
+    // Inserts the items of {@code desired} that have no TreeItem among the children yet, each contiguous run with one addAll.
+    // The children must already be a subsequence of {@code desired}.
+    private void insertRuns(ObservableList<TreeItem<LauncherItem>> children, List<LauncherItem> desired) {
+        List<TreeItem<LauncherItem>> run = new ArrayList<>();
+        for (int i = 0; i < desired.size(); i++) {
+            LauncherItem item = desired.get(i);
+            int next = i - run.size(); // The first child not matched yet; the run goes in front of it
+            if (next < children.size() && children.get(next).getValue() == item) {
+                if (!run.isEmpty()) {
+                    children.addAll(next, run);
+                    run.clear();
+                }
+            } else {
+                run.add(treeItemFor(item));
+            }
+        }
+        if (!run.isEmpty()) {
+            children.addAll(run);
+        }
+    }
+
+    private static boolean matches(List<TreeItem<LauncherItem>> children, List<LauncherItem> desired) {
+        if (children.size() != desired.size()) {
+            return false;
+        }
+        for (int i = 0; i < desired.size(); i++) {
+            if (children.get(i).getValue() != desired.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Removes a TreeItem and the descendants it built from the identity map.
+    private void forget(TreeItem<LauncherItem> treeItem) {
+        if (treeItems.get(treeItem.getValue()) == treeItem) {
+            treeItems.remove(treeItem.getValue());
+        }
+        if (treeItem instanceof LazyLauncherTreeItem && ((LazyLauncherTreeItem) treeItem).isChildrenBuilt()) {
+            forgetAll(treeItem.getChildren());
+        }
+    }
+
+    private void forgetAll(List<TreeItem<LauncherItem>> treeItemsToForget) {
+        for (TreeItem<LauncherItem> treeItem : treeItemsToForget) {
+            forget(treeItem);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import javafx.collections.ObservableList;
+import javafx.scene.control.TreeItem;
+
+import application.core.LauncherItem;
+
+/**
+ * TreeItem for a launcher that creates its child TreeItems the first time they are asked for,
+ * which for a collapsed folder is when the user expands it. Until then the folder's LauncherItem
+ * children are not touched either, so folders loaded lazily from a snapshot stay undecoded.
+ *
+ * A child view narrows the children down, e.g. to those matching a search; without one every child is shown.
+ * Its result is kept until the children are built, so the TreeView asking {@link #isLeaf} on every layout
+ * does not filter and sort the folder each time; call {@link #invalidateChildView} when it may have changed.
+ */
+public class LazyLauncherTreeItem extends TreeItem<LauncherItem> {
+
+    private final Function<LauncherItem, TreeItem<LauncherItem>> childFactory;
+    private final Function<LauncherItem, List<LauncherItem>> childView; // Null to show every child
+    private boolean childrenBuilt;
+    private List<LauncherItem> shownChildren; // Cached result of childView, until the children are built
+
+    public LazyLauncherTreeItem(LauncherItem value, Function<LauncherItem, TreeItem<LauncherItem>> childFactory) {
+        this(value, childFactory, null);
+    }
+
+    /**
+     * @param childView Maps this folder to the children to show, in display order.
+     */
+    public LazyLauncherTreeItem(LauncherItem value, Function<LauncherItem, TreeItem<LauncherItem>> childFactory,
+            Function<LauncherItem, List<LauncherItem>> childView) {
+        super(value);
+        this.childFactory = childFactory;
+        this.childView = childView;
+    }
+
+    @Override
+    public ObservableList<TreeItem<LauncherItem>> getChildren() {
+        if (!childrenBuilt) {
+            childrenBuilt = true;
+            LauncherItem value = getValue();
+            if (value != null && value.isFolder() && value.getChildren() != null) {
+                List<LauncherItem> children = childView != null ? shownChildren(value) : value.getChildren();
+                shownChildren = null;
+                List<TreeItem<LauncherItem>> childItems = new ArrayList<>(children.size());
+                for (LauncherItem child : children) {
+                    childItems.add(childFactory.apply(child));
+                }
+                super.getChildren().setAll(childItems);
+            }
+        }
+        return super.getChildren();
+    }
+
+    @Override
+    public boolean isLeaf() {
+        LauncherItem value = getValue();
+        if (value == null || !value.isFolder()) {
+            return true;
+        }
+        // Answered from the model until the children exist, so the expand arrow does not force them into being.
+        if (childrenBuilt) {
+            return super.getChildren().isEmpty();
+        }
+        return childView != null ? shownChildren(value).isEmpty() : value.getChildCount() == 0;
+    }
+
+    /**
+     * Forgets the cached child view, e.g. because the folder's children or the filter behind the view changed.
+     * Children that were already built are not affected; those are reconciled instead.
+     */
+    public void invalidateChildView() {
+        shownChildren = null;
+    }
+
+    private List<LauncherItem> shownChildren(LauncherItem value) {
+        if (shownChildren == null) {
+            shownChildren = childView.apply(value);
+        }
+        return shownChildren;
+    }
+
+    /**
+     * @return true once the child TreeItems have been created from the model.
+     */
+    public boolean isChildrenBuilt() {
+        return childrenBuilt;
+    }
+}
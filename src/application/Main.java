@@ -1,6 +1,10 @@
 package application;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.stage.Stage;
 import javafx.scene.Parent;
@@ -8,13 +12,24 @@ import javafx.scene.Scene;
 import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
 
+import application.core.HeadlessLauncher;
+import application.core.LauncherDaemon;
+
 public class Main extends Application {
 
     private Controller controller; 
+    private LauncherDaemon daemon; // Serves later invocations; null if another instance owns the socket
+
+    // How long closing the window waits for queued saves to reach the disk.
+    private static final long SAVE_ON_EXIT_TIMEOUT_MILLIS = 5000;
+    // For a training run (e.g. to record a class data sharing archive): show the window, then exit without launching anything.
+    private static final String EXIT_AFTER_STARTUP_OPTION = "--exit-after-startup";
     
     @Override
     public void start(Stage primaryStage) { 
 
+        StartupProfiler.mark("launch");
+        boolean exitAfterStartup = getParameters().getRaw().contains(EXIT_AFTER_STARTUP_OPTION);
         System.out.println("Main: Application starting in normal GUI mode.");
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/Main.fxml"));
@@ -27,27 +42,94 @@ public class Main extends Application {
             Scene scene = new Scene(root, 1080, 720, Color.rgb(18, 18, 18, 1));
             scene.getStylesheets().add(getClass().getResource("application.css").toExternalForm());
 
-            Image icon = new Image("nexlaunchlogo.png");
+            Image icon = new Image("nexlaunchlogo.png", true); // Decoded in the background; the stage picks it up when done
             primaryStage.getIcons().add(icon);
             primaryStage.setTitle("NexLaunch");
 
             primaryStage.setScene(scene);
+            // The first layout pulse once the window is showing is the one that produces the window's first frame.
+            scene.addPostLayoutPulseListener(new Runnable() {
+                @Override
+                public void run() {
+                    scene.removePostLayoutPulseListener(this);
+                    StartupProfiler.finish("firstFrame");
+                    if (exitAfterStartup) {
+                        Platform.exit();
+                    }
+                }
+            });
+            StartupProfiler.mark("scene");
             primaryStage.show();
-
+            StartupProfiler.mark("show");
+            // Registered at once, so closing the window saves even if a later startup step fails.
             primaryStage.setOnCloseRequest(event -> {
+                if (daemon != null) {
+                    daemon.close();
+                }
                 if (controller != null) {
                     controller.saveLaunchers();
-                    System.out.println("Main: Application closing, launchers saved.");
+                    if (controller.flushPendingSaves(SAVE_ON_EXIT_TIMEOUT_MILLIS)) {
+                        System.out.println("Main: Application closing, launchers saved.");
+                    } else {
+                        System.err.println("Main: Application closing before launchers could be saved.");
+                    }
                 }
             });
 
+            if (exitAfterStartup) {
+                return;
+            }
+
+            // Launched once the window is up, so the startup launches do not delay the first frame.
+            controller.performAutoStartupLaunch();
+            startDaemon(primaryStage);
+
         } catch(Exception e) {
             System.err.println("Main: Error during normal application startup: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
+    // Lets later invocations reuse this window's loaded launchers instead of starting their own.
+    private void startDaemon(Stage primaryStage) {
+        LauncherDaemon candidate = new LauncherDaemon(controller.getEngine(), LauncherDaemon.defaultSocketPath(), () -> Platform.runLater(() -> {
+            primaryStage.setIconified(false);
+            primaryStage.show();
+            primaryStage.toFront();
+        }));
+        try {
+            if (candidate.start()) {
+                daemon = candidate;
+            } else {
+                System.out.println("Main: Another NexLaunch instance owns the socket; not accepting commands.");
+            }
+        } catch (IOException e) {
+            System.err.println("Main: Could not listen for other NexLaunch invocations: " + e.getMessage());
+        }
+    }
+
+    // Asks a running instance to bring its window to the front; false if there is none that can.
+    private static boolean showRunningInstance() {
+        try {
+            return LauncherDaemon.send(LauncherDaemon.defaultSocketPath(), LauncherDaemon.SHOW, null) != null;
+        } catch (IOException e) {
+            System.err.println("Main: The running instance could not show a window (" + e.getMessage() + "), opening a new one.");
+            return false;
+        }
+    }
+
     public static void main(String[] args) {
+        StartupProfiler.mark("jvm"); // Under the Java launcher this includes starting the JavaFX toolkit
+        // Launching from a script needs no window; see HeadlessLauncher for the entry point that skips JavaFX entirely.
+        if (HeadlessLauncher.isHeadless(args)) {
+            System.exit(HeadlessLauncher.run(args));
+        }
+        // A second start shows the window that is already open instead of loading everything again.
+        // A training run always starts its own window.
+        if (!Arrays.asList(args).contains(EXIT_AFTER_STARTUP_OPTION) && showRunningInstance()) {
+            System.out.println("Main: NexLaunch is already running, showing its window.");
+            System.exit(0);
+        }
         launch(args);
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package application;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Times the phases of a GUI start, from the process starting to the first frame of the window, and reports
+ * them once on the console: each phase, the total, and whether it stayed within the budget of
+ * {@code nexlaunch.startupBudgetMillis} (default 1500). With {@code nexlaunch.startupProfile=<file>} every
+ * start also appends one CSV row (timestamp, one column per phase, total) so time-to-window can be tracked
+ * across releases.
+ *
+ * A phase ends at its {@link #mark}; the first one, "jvm", covers everything before {@code Main.main}.
+ * Marks after {@link #finish} are ignored, so code that also runs later (e.g. reloading) can mark freely.
+ */
+public final class StartupProfiler {
+
+    private static final long BUDGET_MILLIS = Long.getLong("nexlaunch.startupBudgetMillis", 1500);
+    private static final String PROFILE_FILE_PROPERTY = "nexlaunch.startupProfile";
+
+    private static final List<String> phases = new ArrayList<>();
+    private static final List<Long> endNanos = new ArrayList<>();
+    private static long originNanos; // The process start on the nanoTime scale, set by the first mark
+    private static boolean finished;
+
+    private StartupProfiler() {
+    }
+
+    /**
+     * Ends the phase called {@code phase} now.
+     */
+    public static synchronized void mark(String phase) {
+        if (finished) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (phases.isEmpty()) {
+            // The OS only knows the start time to a few milliseconds, which is fine for a phase that takes a hundred.
+            long sinceStartMillis = ProcessHandle.current().info().startInstant()
+                    .map(start -> Math.max(0, Instant.now().toEpochMilli() - start.toEpochMilli()))
+                    .orElse(0L);
+            originNanos = now - sinceStartMillis * 1_000_000L;
+        }
+        phases.add(phase);
+        endNanos.add(now);
+    }
+
+    /**
+     * Ends the last phase and prints the report; later calls do nothing.
+     * @return The time from the process start to now, in milliseconds (0 if the report was already printed).
+     */
+    public static synchronized long finish(String lastPhase) {
+        if (finished) {
+            return 0;
+        }
+        mark(lastPhase);
+        finished = true;
+        StringBuilder report = new StringBuilder("StartupProfiler:");
+        StringBuilder csv = new StringBuilder(Instant.now().toString());
+        long previous = originNanos;
+        for (int i = 0; i < phases.size(); i++) {
+            long millis = (endNanos.get(i) - previous) / 1_000_000;
+            report.append(' ').append(phases.get(i)).append(' ').append(millis).append(" ms,");
+            csv.append(',').append(millis);
+            previous = endNanos.get(i);
+        }
+        long totalMillis = (previous - originNanos) / 1_000_000;
+        report.append(" time to window ").append(totalMillis).append(" ms (budget ").append(BUDGET_MILLIS).append(" ms)");
+        csv.append(',').append(totalMillis).append('\n');
+        if (totalMillis > BUDGET_MILLIS) {
+            System.err.println(report + String.format(Locale.ROOT, " -- over budget by %d ms.", totalMillis - BUDGET_MILLIS));
+        } else {
+            System.out.println(report + ".");
+        }
+        appendProfile(csv.toString());
+        return totalMillis;
+    }
+
+    private static void appendProfile(String row) {
+        String file = System.getProperty(PROFILE_FILE_PROPERTY);
+        if (file == null || file.isEmpty()) {
+            return;
+        }
+        Path path = Paths.get(file);
+        try {
+            if (!Files.exists(path)) {
+                Files.write(path, ("timestamp," + String.join(",", phases) + ",total\n").getBytes(StandardCharsets.UTF_8));
+            }
+            Files.write(path, row.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("StartupProfiler: Could not append to " + path + ": " + e.getMessage());
+        }
+    }
+}
@@ -6,6 +6,7 @@ module NexLaunch {
     requires java.desktop;
     requires javafx.base;
     requires com.google.gson;
+    requires nexlaunch.core;
 
     opens application to javafx.graphics, javafx.fxml, com.google.gson;
 }